@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import jakarta.annotation.Nonnull;
+import org.openqa.selenium.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test data for benchmarks: generated page sources and screenshots of realistic size, Selenide events and a WebDriver stub.
+ */
+final class BenchmarkData {
+
+	private BenchmarkData() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	/**
+	 * Selenide event with a fixed status.
+	 */
+	static final class BenchmarkLog extends SelenideLog {
+		BenchmarkLog(@Nonnull String element, @Nonnull String subject, @Nonnull LogEvent.EventStatus status) {
+			super(element, subject);
+			setStatus(status);
+		}
+	}
+
+	/**
+	 * WebDriver which returns the same screenshot and page source on every request.
+	 */
+	static final class StubDriver implements WebDriver, TakesScreenshot {
+		private final byte[] screenshot;
+		private final String pageSource;
+
+		StubDriver(@Nonnull byte[] screenshot, @Nonnull String pageSource) {
+			this.screenshot = screenshot;
+			this.pageSource = pageSource;
+		}
+
+		@Override
+		public <X> X getScreenshotAs(OutputType<X> target) {
+			return target.convertFromPngBytes(screenshot);
+		}
+
+		@Override
+		public String getPageSource() {
+			return pageSource;
+		}
+
+		@Override
+		public void get(String url) {
+		}
+
+		@Override
+		public String getCurrentUrl() {
+			return "https://www.example.com/login";
+		}
+
+		@Override
+		public String getTitle() {
+			return "Login";
+		}
+
+		@Override
+		public List<WebElement> findElements(By by) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public WebElement findElement(By by) {
+			throw new NoSuchElementException("Stub driver has no elements");
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void quit() {
+		}
+
+		@Override
+		public Set<String> getWindowHandles() {
+			return Collections.singleton(getWindowHandle());
+		}
+
+		@Override
+		public String getWindowHandle() {
+			return "main";
+		}
+
+		@Override
+		public TargetLocator switchTo() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Navigation navigate() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Options manage() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Generate an HTML page of about the given size.
+	 *
+	 * @param size page size in bytes
+	 * @return page source
+	 */
+	@Nonnull
+	static String page(int size) {
+		StringBuilder result = new StringBuilder(size + 256).append("<html><head><title>Login</title></head><body><table>");
+		for (int row = 0; result.length() < size; row++) {
+			result.append("<tr class=\"row-")
+					.append(row % 2 == 0 ? "even" : "odd")
+					.append("\"><td id=\"cell-")
+					.append(row)
+					.append("\">Item ")
+					.append(row)
+					.append("</td><td><input type=\"text\" name=\"value-")
+					.append(row)
+					.append("\" value=\"")
+					.append(Integer.toHexString(row * 31 + 7))
+					.append("\"/></td><td><a href=\"/items/")
+					.append(row)
+					.append("\">Edit</a></td></tr>\n");
+		}
+		return result.append("</table></body></html>").toString();
+	}
+
+	/**
+	 * Generate a PNG screenshot with some text and gradients, which is compressed like a real page screenshot.
+	 *
+	 * @param width  screenshot width
+	 * @param height screenshot height
+	 * @return PNG bytes
+	 */
+	@Nonnull
+	static byte[] screenshot(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		try {
+			graphics.setPaint(new GradientPaint(0, 0, Color.WHITE, width, height, new Color(220, 230, 245)));
+			graphics.fillRect(0, 0, width, height);
+			graphics.setColor(Color.DARK_GRAY);
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			for (int y = 20, row = 0; y < height; y += 18, row++) {
+				graphics.drawString("Item " + row + " | " + Integer.toHexString(row * 31 + 7) + " | Edit", 10 + row % 7 * 3, y);
+			}
+		} finally {
+			graphics.dispose();
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			ImageIO.write(image, "png", output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.LoggingContext;
+import com.epam.reportportal.service.step.StepReporter;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Launch stub for benchmarks, which sends nothing. Log requests are built right away, so attachments are read as Report Portal client
+ * does before upload. The stub is the current launch of the thread it was created on until it is closed.
+ */
+final class BenchmarkLaunch implements AutoCloseable {
+
+	private static final String ITEM_UUID = "benchmark-item";
+
+	private final MockedStatic<Launch> currentLaunch;
+
+	@SuppressWarnings("unchecked")
+	BenchmarkLaunch() {
+		Launch launch = mock(Launch.class, withSettings().stubOnly());
+		when(launch.getStepReporter()).thenReturn(StepReporter.NOOP_STEP_REPORTER);
+		doAnswer(invocation -> {
+			String item = invocation.<Maybe<String>>getArgument(0).blockingGet();
+			if (item != null) {
+				invocation.<Function<String, SaveLogRQ>>getArgument(1).apply(item);
+			}
+			return null;
+		}).when(launch).log(any(Maybe.class), any(Function.class));
+		currentLaunch = Mockito.mockStatic(Launch.class, withSettings().stubOnly());
+		currentLaunch.when(Launch::currentLaunch).thenReturn(launch);
+		// Failure attachments reach the launch only through the logging context of a test
+		LoggingContext.init(Maybe.just(ITEM_UUID));
+	}
+
+	@Override
+	public void close() {
+		LoggingContext.dispose();
+		currentLaunch.close();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attachment encoding cost: page sources as is, GZIP compressed and ZIP bundled, and screenshots with different encoders. Attachments are
+ * read in full, as Report Portal client does before upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncodingBenchmark {
+
+	private static final String BROWSER_LOG = "[2022-06-08T15:34:59.131Z] [SEVERE] https://www.example.com/favicon.ico - Failed to load "
+			+ "resource: the server responded with a status of 404 ()";
+
+	@Param({ "100000", "1000000" })
+	public int pageSize;
+
+	@Param({ "1280x720", "1920x1080" })
+	public String screenSize;
+
+	private Artifact page;
+	private List<Artifact> bundle;
+	private byte[] screenshot;
+	private ScreenshotEncoder jpeg;
+	private ScreenshotEncoder limited;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		page = Artifact.text(
+				ArtifactType.PAGE_SOURCE,
+				"Page source",
+				"page-source.html",
+				"text/html",
+				Collections.singletonList(BenchmarkData.page(pageSize)),
+				""
+		);
+		Artifact logs = Artifact.text(
+				ArtifactType.SELENIUM_LOG,
+				"WebDriver logs of 'browser' type",
+				"browser.log",
+				"text/plain",
+				Collections.nCopies(1000, BROWSER_LOG),
+				"\n\n"
+		);
+		bundle = Arrays.asList(page, logs);
+		String[] dimensions = screenSize.split("x");
+		screenshot = BenchmarkData.screenshot(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+		jpeg = ScreenshotEncoder.jpeg(0.7f);
+		limited = ScreenshotEncoder.jpeg(0.7f).maxSize(1280, 1024).maxBytes(100 * 1024);
+	}
+
+	@Benchmark
+	public byte[] pageSource() throws IOException {
+		return ArtifactByteSource.of(page).read();
+	}
+
+	@Benchmark
+	public byte[] pageSourceGzip() throws IOException {
+		return Compression.gzip(page).read();
+	}
+
+	@Benchmark
+	public byte[] artifactBundle() throws IOException {
+		return Compression.zip(bundle).read();
+	}
+
+	@Benchmark
+	public byte[] screenshotPng() throws IOException {
+		return ScreenshotEncoder.NONE.encode(screenshot).read();
+	}
+
+	@Benchmark
+	public byte[] screenshotJpeg() throws IOException {
+		return jpeg.encode(screenshot).read();
+	}
+
+	@Benchmark
+	public byte[] screenshotLimited() throws IOException {
+		return limited.encode(screenshot).read();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event overhead of the listener: step reporting of passed and failed events, event filtering, artifact capture and encoding. Report
+ * Portal launch and WebDriver are stubbed, so the results show the listener's own cost, the launch stub adds a static mock call per
+ * event. Run with <code>./gradlew jmh</code>, allocation rate is reported by the GC profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventBenchmark {
+
+	private static final String ELEMENT = "$(\"By.xpath: //*[text()=\"Login with Google\"]\")";
+
+	/**
+	 * WebDriver with a page of the given size, only failed steps request it.
+	 */
+	@State(Scope.Thread)
+	public static class Browser {
+
+		@Param({ "100000", "1000000" })
+		public int pageSize;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			// Bound to the current thread, and JMH calls trial setup on the benchmark thread
+			WebDriverRunner.setWebDriver(new BenchmarkData.StubDriver(BenchmarkData.screenshot(1920, 1080), BenchmarkData.page(pageSize)));
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			WebDriverRunner.closeWebDriver();
+		}
+	}
+
+	private BenchmarkLaunch launch;
+	private ReportPortalSelenideEventListener listener;
+	private ReportPortalSelenideEventListener batchingListener;
+	private ReportPortalSelenideEventListener deduplicatingListener;
+	private EventFilter filter;
+	private LogEvent passed;
+	private LogEvent failed;
+	private LogEvent custom;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Bound to the current thread, and JMH calls trial setup on the benchmark thread
+		launch = new BenchmarkLaunch();
+
+		listener = new ReportPortalSelenideEventListener();
+		batchingListener = new ReportPortalSelenideEventListener().enableStepBatching(100);
+		deduplicatingListener = new ReportPortalSelenideEventListener().enableDeduplication(DeduplicationScope.TEST, 100);
+		filter = new EventFilter(Collections.singleton(SelenideLog.class), null);
+		passed = new BenchmarkData.BenchmarkLog(ELEMENT, "click()", LogEvent.EventStatus.PASS);
+		failed = new BenchmarkData.BenchmarkLog(ELEMENT, "should have(visible)", LogEvent.EventStatus.FAIL);
+		custom = new LogEvent() {
+			@Override
+			public String getElement() {
+				return ELEMENT;
+			}
+
+			@Override
+			public String getSubject() {
+				return "custom";
+			}
+
+			@Override
+			public EventStatus getStatus() {
+				return EventStatus.PASS;
+			}
+
+			@Override
+			public long getDuration() {
+				return 0;
+			}
+
+			@Override
+			public long getStartTime() {
+				return 0;
+			}
+
+			@Override
+			public long getEndTime() {
+				return 0;
+			}
+
+			@Override
+			public Throwable getError() {
+				return null;
+			}
+		};
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		launch.close();
+	}
+
+	@Benchmark
+	public void passedStep() {
+		listener.beforeEvent(passed);
+		listener.afterEvent(passed);
+	}
+
+	@Benchmark
+	public void passedStepBatched() {
+		batchingListener.beforeEvent(passed);
+		batchingListener.afterEvent(passed);
+	}
+
+	@Benchmark
+	public void failedStep(Browser browser) {
+		listener.beforeEvent(failed);
+		listener.afterEvent(failed);
+	}
+
+	@Benchmark
+	public void failedStepDeduplicated(Browser browser) {
+		deduplicatingListener.beforeEvent(failed);
+		deduplicatingListener.afterEvent(failed);
+	}
+
+	@Benchmark
+	public void skippedEvent() {
+		listener.beforeEvent(custom);
+		listener.afterEvent(custom);
+	}
+
+	@Benchmark
+	public boolean filterAccepted() {
+		return filter.accept(passed);
+	}
+
+	@Benchmark
+	public boolean filterRejected() {
+		return filter.accept(custom);
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A raw artifact got from WebDriver, either binary or textual. Textual artifacts are kept as a list of parts, which are written with a
+ * separator between them, that way WebDriver logs are never joined into a single string. Text is encoded in UTF-8 only on write, with
+ * per-thread reusable encoder and buffer.
+ */
+final class Artifact {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final String HEAD_TRUNCATION_MARKER = "[Truncated: the artifact exceeded %d bytes]";
+	private static final String TAIL_TRUNCATION_MARKER = "[Truncated: %d earlier entries]";
+
+	private static final ThreadLocal<CharsetEncoder> ENCODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE));
+	private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+	private final ArtifactType type;
+	private final String message;
+	private final String fileName;
+	private final String mediaType;
+	private final byte[] binary;
+	private final List<? extends CharSequence> text;
+	private final String separator;
+	private volatile long size = -1;
+
+	private Artifact(@Nonnull ArtifactType type, @Nonnull String message, @Nonnull String fileName, @Nonnull String mediaType,
+			@Nullable byte[] binary, @Nullable List<? extends CharSequence> text, @Nonnull String separator) {
+		this.type = type;
+		this.message = message;
+		this.fileName = fileName;
+		this.mediaType = mediaType;
+		this.binary = binary;
+		this.text = text;
+		this.separator = separator;
+	}
+
+	@Nonnull
+	static Artifact binary(@Nonnull ArtifactType type, @Nonnull String message, @Nonnull String fileName, @Nonnull String mediaType,
+			@Nonnull byte[] data) {
+		return new Artifact(type, message, fileName, mediaType, data, null, "");
+	}
+
+	@Nonnull
+	static Artifact text(@Nonnull ArtifactType type, @Nonnull String message, @Nonnull String fileName, @Nonnull String mediaType,
+			@Nonnull List<? extends CharSequence> parts, @Nonnull String separator) {
+		return new Artifact(type, message, fileName, mediaType, null, parts, separator);
+	}
+
+	@Nonnull
+	public ArtifactType getType() {
+		return type;
+	}
+
+	@Nonnull
+	public String getMessage() {
+		return message;
+	}
+
+	@Nonnull
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Nonnull
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	@Nullable
+	public byte[] getBinary() {
+		return binary;
+	}
+
+	public boolean isText() {
+		return text != null;
+	}
+
+	/**
+	 * Get the artifact marked with a label, E.G. the name of the browser it was got from. The label is added to the message and the file
+	 * name, the content is shared.
+	 *
+	 * @param label artifact label
+	 * @return labelled artifact
+	 */
+	@Nonnull
+	public Artifact withLabel(@Nonnull String label) {
+		String labelledFileName = label.replaceAll("\\W+", "-") + "-" + fileName;
+		Artifact result = new Artifact(type, label + ": " + message, labelledFileName, mediaType, binary, text, separator);
+		result.size = size;
+		return result;
+	}
+
+	/**
+	 * Join parts of a textual artifact into a single string. Page sources consist of a single part, so they are not copied.
+	 *
+	 * @return artifact text or <code>null</code> for binary artifacts
+	 */
+	@Nullable
+	public String getText() {
+		if (text == null) {
+			return null;
+		}
+		return text.size() == 1 ? text.get(0).toString() : String.join(separator, text);
+	}
+
+	/**
+	 * Size of the artifact in bytes, textual artifacts are measured in UTF-8 without encoding them.
+	 *
+	 * @return artifact size
+	 */
+	public long size() {
+		long result = size;
+		if (result < 0) {
+			if (text == null) {
+				result = binary.length;
+			} else {
+				result = text.isEmpty() ? 0 : utf8Length(separator) * (text.size() - 1);
+				for (CharSequence part : text) {
+					result += utf8Length(part);
+				}
+			}
+			size = result;
+		}
+		return result;
+	}
+
+	private static long utf8Length(@Nonnull CharSequence value) {
+		return utf8Length(value, value.length());
+	}
+
+	private static long utf8Length(@Nonnull CharSequence value, int end) {
+		long result = 0;
+		for (int i = 0; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				result++;
+			} else if (c < 0x800) {
+				result += 2;
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+					result += 4;
+					i++;
+				} else {
+					// malformed surrogates are replaced with '?' by the encoder
+					result++;
+				}
+			} else {
+				result += 3;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the longest prefix of the value which fits into the given number of UTF-8 bytes.
+	 */
+	private static int prefixLength(@Nonnull CharSequence value, long maxBytes) {
+		long bytes = 0;
+		int i = 0;
+		for (int length = value.length(); i < length; i++) {
+			char c = value.charAt(i);
+			int charBytes = 1;
+			int chars = 1;
+			if (c >= 0x80 && c < 0x800) {
+				charBytes = 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				charBytes = 4;
+				chars = 2;
+			} else if (c >= 0x800 && !Character.isSurrogate(c)) {
+				charBytes = 3;
+			}
+			if (bytes + charBytes > maxBytes) {
+				break;
+			}
+			bytes += charBytes;
+			i += chars - 1;
+		}
+		return i;
+	}
+
+	/**
+	 * Get the artifact limited to the given size. Page sources are cut at the end, logs lose their earliest entries, that way the most
+	 * relevant content is kept. A marker is added to the truncated artifact. Binary artifacts are never truncated.
+	 *
+	 * @param maxBytes maximum artifact size in bytes
+	 * @return the same artifact if it fits into the limit, a truncated one otherwise
+	 */
+	@Nonnull
+	public Artifact truncate(long maxBytes) {
+		if (text == null || size() <= maxBytes) {
+			return this;
+		}
+		long separatorLength = utf8Length(separator);
+		List<CharSequence> parts = new ArrayList<>();
+		if (type == ArtifactType.SELENIUM_LOG) {
+			int first = text.size();
+			long kept = 0;
+			while (first > 0) {
+				long next = kept + utf8Length(text.get(first - 1)) + (first < text.size() ? separatorLength : 0);
+				long markerLength = utf8Length(String.format(TAIL_TRUNCATION_MARKER, first - 1)) + separatorLength;
+				if (next + markerLength > maxBytes) {
+					break;
+				}
+				kept = next;
+				first--;
+			}
+			if (first < text.size()) {
+				parts.add(String.format(TAIL_TRUNCATION_MARKER, first));
+				parts.addAll(text.subList(first, text.size()));
+				return new Artifact(type, message, fileName, mediaType, null, Collections.unmodifiableList(parts), separator);
+			}
+		}
+		String marker = (separator.isEmpty() ? "\n\n" : "") + String.format(HEAD_TRUNCATION_MARKER, maxBytes);
+		long budget = Math.max(0, maxBytes - utf8Length(marker) - separatorLength);
+		for (CharSequence part : text) {
+			long partLength = utf8Length(part) + (parts.isEmpty() ? 0 : separatorLength);
+			if (partLength <= budget) {
+				parts.add(part);
+				budget -= partLength;
+			} else {
+				if (parts.isEmpty() || budget > separatorLength) {
+					long partBudget = parts.isEmpty() ? budget : budget - separatorLength;
+					parts.add(CharBuffer.wrap(part, 0, prefixLength(part, partBudget)));
+				}
+				break;
+			}
+		}
+		parts.add(marker);
+		return new Artifact(type, message, fileName, mediaType, null, Collections.unmodifiableList(parts), separator);
+	}
+
+	private static void encode(@Nonnull CharSequence value, @Nonnull ByteBuffer target, @Nullable OutputStream output)
+			throws IOException {
+		CharsetEncoder encoder = ENCODER.get().reset();
+		CharBuffer source = CharBuffer.wrap(value);
+		CoderResult result;
+		do {
+			result = encoder.encode(source, target, true);
+			if (result.isOverflow()) {
+				if (output == null) {
+					throw new IOException("Artifact size exceeded its estimation");
+				}
+				drain(target, output);
+			}
+		} while (result.isOverflow());
+		while (encoder.flush(target).isOverflow()) {
+			if (output == null) {
+				throw new IOException("Artifact size exceeded its estimation");
+			}
+			drain(target, output);
+		}
+	}
+
+	private static void drain(@Nonnull ByteBuffer buffer, @Nonnull OutputStream output) throws IOException {
+		output.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+		buffer.clear();
+	}
+
+	private void encode(@Nonnull ByteBuffer target, @Nullable OutputStream output) throws IOException {
+		boolean first = true;
+		for (CharSequence part : text) {
+			if (!first) {
+				encode(separator, target, output);
+			}
+			encode(part, target, output);
+			first = false;
+		}
+	}
+
+	/**
+	 * Write the artifact into the given stream, textual artifacts are encoded in UTF-8 on the fly.
+	 *
+	 * @param output a stream to write to, is not closed by the method
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeTo(@Nonnull OutputStream output) throws IOException {
+		if (text == null) {
+			output.write(binary);
+			return;
+		}
+		ByteBuffer buffer = BUFFER.get();
+		buffer.clear();
+		try {
+			encode(buffer, output);
+			drain(buffer, output);
+		} finally {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Get the artifact content as a byte array. Textual artifacts are encoded directly into an array of the exact size, binary artifacts
+	 * are returned as is.
+	 *
+	 * @return artifact bytes
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nonnull
+	public byte[] toBytes() throws IOException {
+		if (text == null) {
+			return binary;
+		}
+		long length = size();
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IOException("Artifact is too large to be attached: " + length + " bytes");
+		}
+		byte[] result = new byte[(int) length];
+		ByteBuffer target = ByteBuffer.wrap(result);
+		encode(target, null);
+		return target.position() == result.length ? result : Arrays.copyOf(result, target.position());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import com.epam.reportportal.utils.files.ByteSource;
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+/**
+ * Attachment data which is not copied on every wrap and read, unlike {@link ByteSource#wrap(byte[])}. Textual artifacts are encoded only
+ * when Report Portal client reads them, directly into an array of the exact size.
+ */
+class ArtifactByteSource extends TypeAwareByteSource {
+
+	private final Artifact artifact;
+
+	ArtifactByteSource(@Nonnull Artifact artifact, @Nonnull String mediaType) {
+		super(new ByteSource((URL) null), mediaType);
+		this.artifact = artifact;
+	}
+
+	/**
+	 * Wrap the given bytes without copying them.
+	 *
+	 * @param data      attachment data
+	 * @param mediaType attachment media type
+	 * @return attachment data source
+	 */
+	@Nonnull
+	static ArtifactByteSource of(@Nonnull byte[] data, @Nonnull String mediaType) {
+		return new ArtifactByteSource(Artifact.binary(ArtifactType.SCREENSHOT, "", "", mediaType, data), mediaType);
+	}
+
+	/**
+	 * Encode the given artifact lazily.
+	 *
+	 * @param artifact an artifact to attach
+	 * @return attachment data source
+	 */
+	@Nonnull
+	static ArtifactByteSource of(@Nonnull Artifact artifact) {
+		return new ArtifactByteSource(artifact, artifact.getMediaType());
+	}
+
+	/**
+	 * Get attachment size without reading it.
+	 *
+	 * @return size in bytes
+	 */
+	long size() {
+		return artifact.size();
+	}
+
+	/**
+	 * Write attachment data to the given stream, textual artifacts are encoded on the fly.
+	 *
+	 * @param output stream to write to
+	 * @throws IOException if the stream can't be written
+	 */
+	void writeTo(@Nonnull OutputStream output) throws IOException {
+		if (artifact.isText()) {
+			artifact.writeTo(output);
+		} else {
+			output.write(artifact.getBinary());
+		}
+	}
+
+	@Override
+	public InputStream openStream() throws IOException {
+		return new ByteArrayInputStream(read());
+	}
+
+	@Override
+	public byte[] read() throws IOException {
+		return artifact.toBytes();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.service.Launch;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers content hashes of attached artifacts in a bounded LRU cache to find duplicates. The cache is reset once the launch (for
+ * {@link DeduplicationScope#LAUNCH}) or the test on the current thread (for {@link DeduplicationScope#TEST}) changes.
+ */
+final class ArtifactDeduplicator {
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private static final class Cache extends LinkedHashMap<String, String> {
+		private static final long serialVersionUID = 1L;
+
+		private final Object owner;
+		private final int maxSize;
+
+		private Cache(@Nullable Object owner, int maxSize) {
+			super(16, 0.75f, true);
+			this.owner = owner;
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+	private final DeduplicationScope scope;
+	private final int cacheSize;
+	private final ThreadLocal<Cache> testCache = new ThreadLocal<>();
+	private Cache launchCache;
+
+	ArtifactDeduplicator(@Nonnull DeduplicationScope scope, int cacheSize) {
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("Deduplication cache size should be positive: " + cacheSize);
+		}
+		this.scope = scope;
+		this.cacheSize = cacheSize;
+	}
+
+	/**
+	 * Get the content hash of an artifact, which identifies the artifact in the cache.
+	 *
+	 * @param artifact an artifact to hash
+	 * @return artifact hash
+	 * @throws IOException if the artifact can't be read
+	 */
+	@Nonnull
+	static String hash(@Nonnull Artifact artifact) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		if (artifact.isText()) {
+			artifact.writeTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+		} else {
+			digest.update(artifact.toBytes());
+		}
+		return artifact.getType().name() + ':' + Base64.getEncoder().encodeToString(digest.digest());
+	}
+
+	@Nonnull
+	private Cache currentCache() {
+		if (scope == DeduplicationScope.TEST) {
+			Object test = TestScope.currentTest();
+			Cache cache = testCache.get();
+			if (cache == null || cache.owner != test) {
+				cache = new Cache(test, cacheSize);
+				testCache.set(cache);
+			}
+			return cache;
+		}
+		Launch launch = Launch.currentLaunch();
+		synchronized (this) {
+			if (launchCache == null || launchCache.owner != launch) {
+				launchCache = new Cache(launch, cacheSize);
+			}
+			return launchCache;
+		}
+	}
+
+	/**
+	 * Check if an artifact with the same hash was already attached in the current scope.
+	 *
+	 * @param hash artifact hash
+	 * @return reference of the original artifact or <code>null</code> if the artifact is new
+	 */
+	@Nullable
+	String findDuplicate(@Nonnull String hash) {
+		Cache cache = currentCache();
+		synchronized (cache) {
+			return cache.get(hash);
+		}
+	}
+
+	/**
+	 * Remember an attached artifact, so its duplicates in the current scope refer to it.
+	 *
+	 * @param hash      artifact hash
+	 * @param reference a description of the place where the artifact is attached
+	 */
+	void remember(@Nonnull String hash, @Nonnull String reference) {
+		Cache cache = currentCache();
+		synchronized (cache) {
+			cache.putIfAbsent(hash, reference);
+		}
+	}
+}
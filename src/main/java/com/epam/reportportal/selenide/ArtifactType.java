@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+/**
+ * Types of artifacts which the listener attaches to a failed step.
+ */
+public enum ArtifactType {
+	/**
+	 * WebDriver screenshot.
+	 */
+	SCREENSHOT,
+	/**
+	 * Current page source.
+	 */
+	PAGE_SOURCE,
+	/**
+	 * WebDriver logs of any type enabled with
+	 * {@link ReportPortalSelenideEventListener#enableSeleniumLogs(String, java.util.logging.Level)}.
+	 */
+	SELENIUM_LOG
+}
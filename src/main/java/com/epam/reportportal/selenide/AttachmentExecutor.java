@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.*;
+
+/**
+ * Bounded executor which encodes and sends failure attachments outside a test thread.
+ * <p>
+ * If the queue is full the task is executed on the calling thread, so a test is slowed down rather than its attachments lost. The same
+ * happens if the executor was already shut down, since a test thread may still hold it after the listener switched to another one.
+ * Worker threads are shared between launches, so tasks should carry the launch they report to.
+ */
+final class AttachmentExecutor {
+
+	private static final String THREAD_NAME_PREFIX = "rp-selenide-attachment-";
+
+	private final ThreadPoolExecutor executor;
+	private final Object lock = new Object();
+	private int pending;
+
+	AttachmentExecutor(int threads, int queueSize) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Attachment thread number should be positive: " + threads);
+		}
+		if (queueSize < 1) {
+			throw new IllegalArgumentException("Attachment queue size should be positive: " + queueSize);
+		}
+		executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				60L,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				new DaemonThreadFactory(THREAD_NAME_PREFIX),
+				(task, pool) -> task.run()
+		);
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Submit an attachment task for execution.
+	 *
+	 * @param task a task to execute
+	 */
+	void execute(@Nonnull Runnable task) {
+		synchronized (lock) {
+			pending++;
+		}
+		executor.execute(() -> {
+			try {
+				task.run();
+			} finally {
+				complete();
+			}
+		});
+	}
+
+	private void complete() {
+		synchronized (lock) {
+			if (--pending <= 0) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Wait for all submitted tasks to complete.
+	 *
+	 * @param timeout maximum time to wait
+	 * @param unit    time unit of the timeout argument
+	 * @return <code>true</code> if all tasks were completed, <code>false</code> if the timeout elapsed
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	boolean await(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (lock) {
+			while (pending > 0) {
+				long left = deadline - System.nanoTime();
+				if (left <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(lock, left);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stop accepting new tasks, already submitted tasks will be completed.
+	 */
+	void shutdown() {
+		executor.shutdown();
+	}
+}
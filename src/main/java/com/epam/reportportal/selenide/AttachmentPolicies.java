@@ -0,0 +1,307 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.epam.reportportal.service.Launch;
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Factory of common {@link AttachmentPolicy} implementations.
+ * <p>
+ * Usage:
+ * <pre>
+ *     new ReportPortalSelenideEventListener().attachmentPolicy(AttachmentPolicies.all(
+ *         AttachmentPolicies.firstFailuresPerTest(3),
+ *         AttachmentPolicies.rateLimit(10, 50),
+ *         AttachmentPolicies.byteBudget(500L * 1024 * 1024)
+ *     ));
+ * </pre>
+ */
+public final class AttachmentPolicies {
+
+	private static final AttachmentPolicy ALWAYS = (event, stepName) -> true;
+
+	private AttachmentPolicies() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	/**
+	 * Per-test state holder, which is reset once the test on the thread changes.
+	 */
+	private static final class TestState<T> {
+		private final Object test;
+		private final T value;
+
+		private TestState(Object test, T value) {
+			this.test = test;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Per-launch state holder, which is reset once the current launch changes.
+	 */
+	private static final class LaunchState<T> {
+		private final Supplier<T> factory;
+		private Object launch;
+		private T value;
+
+		private LaunchState(@Nonnull Supplier<T> factory) {
+			this.factory = factory;
+		}
+
+		@Nonnull
+		private synchronized T current() {
+			Object current = Launch.currentLaunch();
+			if (value == null || launch != current) {
+				launch = current;
+				value = factory.get();
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Token bucket of a launch.
+	 */
+	private static final class TokenBucket {
+		private final int burst;
+		private final double tokensPerNano;
+		private double tokens;
+		private long lastRefill = System.nanoTime();
+
+		private TokenBucket(int burst, double tokensPerNano) {
+			this.burst = burst;
+			this.tokensPerNano = tokensPerNano;
+			tokens = burst;
+		}
+
+		private synchronized boolean take() {
+			long now = System.nanoTime();
+			tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+			lastRefill = now;
+			if (tokens < 1) {
+				return false;
+			}
+			tokens--;
+			return true;
+		}
+
+		private synchronized void giveBack() {
+			tokens = Math.min(burst, tokens + 1);
+		}
+	}
+
+	/**
+	 * Policy which attaches artifacts on every failure, the default one.
+	 *
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy always() {
+		return ALWAYS;
+	}
+
+	/**
+	 * Policy which attaches artifacts only for the first failures in a test.
+	 *
+	 * @param failures number of failures with artifacts per test
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy firstFailuresPerTest(int failures) {
+		if (failures < 1) {
+			throw new IllegalArgumentException("Failure number should be positive: " + failures);
+		}
+		ThreadLocal<TestState<int[]>> counters = new ThreadLocal<>();
+		return new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				Object test = TestScope.currentTest();
+				TestState<int[]> state = counters.get();
+				if (state == null || state.test != test) {
+					state = new TestState<>(test, new int[1]);
+					counters.set(state);
+				}
+				return state.value[0]++ < failures;
+			}
+
+			@Override
+			public void cancelFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				TestState<int[]> state = counters.get();
+				if (state != null && state.test == TestScope.currentTest() && state.value[0] > 0) {
+					state.value[0]--;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Policy which attaches artifacts only once per unique step name in a test.
+	 *
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy oncePerStep() {
+		ThreadLocal<TestState<Set<String>>> steps = new ThreadLocal<>();
+		return new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				Object test = TestScope.currentTest();
+				TestState<Set<String>> state = steps.get();
+				if (state == null || state.test != test) {
+					state = new TestState<>(test, new HashSet<>());
+					steps.set(state);
+				}
+				return state.value.add(stepName);
+			}
+
+			@Override
+			public void cancelFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				TestState<Set<String>> state = steps.get();
+				if (state != null && state.test == TestScope.currentTest()) {
+					state.value.remove(stepName);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Token bucket policy, which limits number of failures with artifacts for all tests of a launch which share the listener. The bucket
+	 * is filled up again once the current launch changes.
+	 *
+	 * @param failuresPerSecond sustained rate of failures with artifacts
+	 * @param burst             maximum number of failures with artifacts in a burst
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy rateLimit(double failuresPerSecond, int burst) {
+		if (failuresPerSecond <= 0) {
+			throw new IllegalArgumentException("Failure rate should be positive: " + failuresPerSecond);
+		}
+		if (burst < 1) {
+			throw new IllegalArgumentException("Burst size should be positive: " + burst);
+		}
+		double tokensPerNano = failuresPerSecond / TimeUnit.SECONDS.toNanos(1);
+		LaunchState<TokenBucket> buckets = new LaunchState<>(() -> new TokenBucket(burst, tokensPerNano));
+		return new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				return buckets.current().take();
+			}
+
+			@Override
+			public void cancelFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				buckets.current().giveBack();
+			}
+		};
+	}
+
+	/**
+	 * Policy which stops attaching artifacts once their total size in a launch exceeds the budget. Counts artifact sizes before encoding
+	 * and compression. The budget is restored once the current launch changes.
+	 *
+	 * @param bytes total size of artifacts for all tests of a launch which share the listener
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy byteBudget(long bytes) {
+		if (bytes < 1) {
+			throw new IllegalArgumentException("Byte budget should be positive: " + bytes);
+		}
+		LaunchState<AtomicLong> budgets = new LaunchState<>(() -> new AtomicLong(bytes));
+		return new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				return budgets.current().get() > 0;
+			}
+
+			@Override
+			public boolean attachArtifact(@Nonnull ArtifactType type, long size) {
+				AtomicLong remaining = budgets.current();
+				long current;
+				do {
+					current = remaining.get();
+					if (current < size) {
+						return false;
+					}
+				} while (!remaining.compareAndSet(current, current - size));
+				return true;
+			}
+
+			@Override
+			public void cancelArtifact(@Nonnull ArtifactType type, long size) {
+				budgets.current().accumulateAndGet(size, (current, cancelled) -> Math.min(bytes, current + cancelled));
+			}
+		};
+	}
+
+	/**
+	 * Policy which requires all the given policies to agree. Policies are called in the given order until the first rejection, then the
+	 * policies which have already accepted the failure or the artifact are cancelled, so a rejected one does not use up their counts and
+	 * budgets.
+	 *
+	 * @param policies policies to combine
+	 * @return policy instance
+	 */
+	@Nonnull
+	public static AttachmentPolicy all(@Nonnull AttachmentPolicy... policies) {
+		List<AttachmentPolicy> list = Arrays.asList(policies.clone());
+		return new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				for (int i = 0; i < list.size(); i++) {
+					if (!list.get(i).captureFailure(event, stepName)) {
+						list.subList(0, i).forEach(p -> p.cancelFailure(event, stepName));
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public boolean attachArtifact(@Nonnull ArtifactType type, long size) {
+				for (int i = 0; i < list.size(); i++) {
+					if (!list.get(i).attachArtifact(type, size)) {
+						list.subList(0, i).forEach(p -> p.cancelArtifact(type, size));
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public void cancelFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				list.forEach(p -> p.cancelFailure(event, stepName));
+			}
+
+			@Override
+			public void cancelArtifact(@Nonnull ArtifactType type, long size) {
+				list.forEach(p -> p.cancelArtifact(type, size));
+			}
+		};
+	}
+}
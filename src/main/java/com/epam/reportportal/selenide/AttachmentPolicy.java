@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import jakarta.annotation.Nonnull;
+
+/**
+ * Decides which failures get artifacts attached, that way a test which fails many times in a row can't flood Report Portal client upload
+ * queue. Ready-to-use policies can be found in {@link AttachmentPolicies}.
+ * <p>
+ * Policies are called from test threads concurrently, so implementations should be thread-safe.
+ */
+public interface AttachmentPolicy {
+
+	/**
+	 * Decide if artifacts should be captured for the failed event. Called before any WebDriver request, so a rejected failure costs nothing.
+	 *
+	 * @param event    failed Selenide event
+	 * @param stepName name of the failed step, as it's reported
+	 * @return <code>true</code> to capture artifacts, <code>false</code> to skip them
+	 */
+	boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName);
+
+	/**
+	 * Decide if a captured artifact should be attached. A policy which accepts the artifact may count its size against a budget.
+	 *
+	 * @param type artifact type
+	 * @param size artifact size in bytes before encoding
+	 * @return <code>true</code> to attach the artifact, <code>false</code> to skip it
+	 */
+	default boolean attachArtifact(@Nonnull ArtifactType type, long size) {
+		return true;
+	}
+
+	/**
+	 * Called when the failure accepted by the policy was rejected by another policy it is combined with, so the policy can take back
+	 * what it has counted for the failure.
+	 *
+	 * @param event    failed Selenide event
+	 * @param stepName name of the failed step, as it's reported
+	 */
+	default void cancelFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+	}
+
+	/**
+	 * Called when the artifact accepted by the policy was rejected by another policy it is combined with, so the policy can take back
+	 * the artifact size it has counted.
+	 *
+	 * @param type artifact type
+	 * @param size artifact size in bytes before encoding
+	 */
+	default void cancelArtifact(@Nonnull ArtifactType type, long size) {
+	}
+}
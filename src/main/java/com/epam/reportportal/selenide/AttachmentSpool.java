@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import com.epam.reportportal.utils.files.ByteSource;
+import jakarta.annotation.Nonnull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps encoded attachments in memory up to the given total size and spills the rest into temporary files, so a burst of failures does
+ * not fill the heap while attachments wait for their test items to be started by Report Portal client. An attachment is accounted, and
+ * its file is kept, until the client reads it into a log request. After that the data is held by the client until the request is sent,
+ * which the spool doesn't limit.
+ */
+final class AttachmentSpool {
+
+	private static final String FILE_PREFIX = "rp-selenide-";
+	private static final String FILE_SUFFIX = ".attachment";
+	private static final Cleaner CLEANER = Cleaner.create(new DaemonThreadFactory("rp-selenide-spool-cleaner-"));
+
+	/**
+	 * Attachment data which is kept in memory and released from the spool on the first read.
+	 */
+	static final class SpoolEntry extends TypeAwareByteSource {
+		private final ArtifactByteSource source;
+		private final Cleaner.Cleanable release;
+
+		private SpoolEntry(@Nonnull ArtifactByteSource source, @Nonnull AtomicLong counter, long size) {
+			super(new ByteSource((URL) null), source.getMediaType());
+			this.source = source;
+			release = CLEANER.register(this, () -> counter.addAndGet(-size));
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return new ByteArrayInputStream(read());
+		}
+
+		@Override
+		public byte[] read() throws IOException {
+			try {
+				return source.read();
+			} finally {
+				release.clean();
+			}
+		}
+	}
+
+	/**
+	 * Attachment data which is read from a spool file, the file is removed on the first read.
+	 */
+	static final class SpoolFile extends TypeAwareByteSource {
+		private final Path file;
+		private final Cleaner.Cleanable release;
+
+		private SpoolFile(@Nonnull Path file, @Nonnull String mediaType) {
+			super(new ByteSource((URL) null), mediaType);
+			this.file = file;
+			release = CLEANER.register(this, () -> delete(file));
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return new ByteArrayInputStream(read());
+		}
+
+		@Override
+		public byte[] read() throws IOException {
+			try {
+				return Files.readAllBytes(file);
+			} finally {
+				release.clean();
+			}
+		}
+	}
+
+	private final long memoryCap;
+	private final Path directory;
+	private final AtomicLong inMemory = new AtomicLong();
+
+	AttachmentSpool(long memoryCap, @Nonnull Path directory) {
+		if (memoryCap < 0) {
+			throw new IllegalArgumentException("Spool memory cap should not be negative: " + memoryCap);
+		}
+		this.memoryCap = memoryCap;
+		this.directory = directory;
+	}
+
+	private boolean reserve(long size) {
+		long current;
+		do {
+			current = inMemory.get();
+			if (current + size > memoryCap) {
+				return false;
+			}
+		} while (!inMemory.compareAndSet(current, current + size));
+		return true;
+	}
+
+	private static void delete(@Nonnull Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ignore) {
+			// Temporary directory will be cleaned by the system
+		}
+	}
+
+	@Nonnull
+	private SpoolFile spill(@Nonnull ArtifactByteSource source) throws IOException {
+		Files.createDirectories(directory);
+		Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+		try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file))) {
+			source.writeTo(output);
+		} catch (IOException | RuntimeException e) {
+			delete(file);
+			throw e;
+		}
+		return new SpoolFile(file, source.getMediaType());
+	}
+
+	/**
+	 * Put an encoded attachment into the spool.
+	 *
+	 * @param source encoded attachment
+	 * @return the attachment kept in memory if it fits into the memory cap, otherwise the attachment backed by a file
+	 */
+	@Nonnull
+	TypeAwareByteSource spool(@Nonnull TypeAwareByteSource source) {
+		if (!(source instanceof ArtifactByteSource)) {
+			return source;
+		}
+		ArtifactByteSource attachment = (ArtifactByteSource) source;
+		long size = attachment.size();
+		if (reserve(size)) {
+			return new SpoolEntry(attachment, inMemory, size);
+		}
+		try {
+			return spill(attachment);
+		} catch (IOException e) {
+			// Losing the attachment is worse than exceeding the cap
+			inMemory.addAndGet(size);
+			return new SpoolEntry(attachment, inMemory, size);
+		}
+	}
+
+	/**
+	 * Get total size of attachments which are kept in memory and not read by the client yet.
+	 *
+	 * @return size in bytes
+	 */
+	long getInMemory() {
+		return inMemory.get();
+	}
+}
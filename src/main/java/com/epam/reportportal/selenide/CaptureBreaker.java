@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.openqa.selenium.WebDriver;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breaker of artifact capture, which stops requesting artifacts from a WebDriver session after the given number of consecutive
+ * capture timeouts. A hung browser usually doesn't recover, so every next failure would wait for the same timeouts again. Sessions are
+ * kept by weak references, a new driver starts with a closed breaker.
+ */
+final class CaptureBreaker {
+
+	private final int maxTimeouts;
+	private final Map<WebDriver, Integer> timeouts = new WeakHashMap<>();
+
+	CaptureBreaker(int maxTimeouts) {
+		if (maxTimeouts < 1) {
+			throw new IllegalArgumentException("Capture timeout number should be positive: " + maxTimeouts);
+		}
+		this.maxTimeouts = maxTimeouts;
+	}
+
+	/**
+	 * Check if the exception means that WebDriver didn't respond in time, rather than the command failed.
+	 *
+	 * @param error capture error
+	 * @return <code>true</code> if the error or any of its causes is a timeout
+	 */
+	static boolean isTimeout(@Nullable Throwable error) {
+		for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+			if (e instanceof TimeoutException || e instanceof SocketTimeoutException
+					|| e instanceof org.openqa.selenium.TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	int getMaxTimeouts() {
+		return maxTimeouts;
+	}
+
+	/**
+	 * Check if capture from the driver is stopped.
+	 *
+	 * @param driver WebDriver instance
+	 * @return <code>true</code> if the driver has reached the timeout number
+	 */
+	boolean isOpen(@Nonnull WebDriver driver) {
+		WebDriver session = DriverTracker.unwrap(driver);
+		synchronized (timeouts) {
+			return timeouts.getOrDefault(session, 0) >= maxTimeouts;
+		}
+	}
+
+	/**
+	 * Record capture result of the driver. A successful capture resets the timeout number, unless the breaker is already open.
+	 *
+	 * @param driver   WebDriver instance
+	 * @param timedOut <code>true</code> if the capture timed out
+	 */
+	void record(@Nonnull WebDriver driver, boolean timedOut) {
+		WebDriver session = DriverTracker.unwrap(driver);
+		synchronized (timeouts) {
+			int current = timeouts.getOrDefault(session, 0);
+			if (current >= maxTimeouts) {
+				return;
+			}
+			if (timedOut) {
+				timeouts.put(session, current + 1);
+			} else if (current > 0) {
+				timeouts.remove(session);
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import jakarta.annotation.Nonnull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Artifact compression utilities. Artifacts are streamed into a compressor directly, so no uncompressed copy is made.
+ */
+final class Compression {
+
+	static final String GZIP_TYPE = "application/gzip";
+	static final String ZIP_TYPE = "application/zip";
+
+	private Compression() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	/**
+	 * Compress a single artifact with GZIP.
+	 *
+	 * @param artifact an artifact to compress
+	 * @return compressed artifact data
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nonnull
+	static TypeAwareByteSource gzip(@Nonnull Artifact artifact) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+			artifact.writeTo(gzip);
+		}
+		return ArtifactByteSource.of(output.toByteArray(), GZIP_TYPE);
+	}
+
+	/**
+	 * Pack several artifacts into a single ZIP archive, one entry per artifact.
+	 *
+	 * @param artifacts artifacts to pack
+	 * @return archive data
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Nonnull
+	static TypeAwareByteSource zip(@Nonnull Collection<Artifact> artifacts) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Set<String> names = new HashSet<>();
+		try (ZipOutputStream zip = new ZipOutputStream(output)) {
+			for (Artifact artifact : artifacts) {
+				String name = artifact.getFileName();
+				for (int i = 1; !names.add(name); i++) {
+					name = i + "-" + artifact.getFileName();
+				}
+				zip.putNextEntry(new ZipEntry(name));
+				artifact.writeTo(zip);
+				zip.closeEntry();
+			}
+		}
+		return ArtifactByteSource.of(output.toByteArray(), ZIP_TYPE);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates named daemon threads, so the logger never prevents JVM from exit.
+ */
+final class DaemonThreadFactory implements ThreadFactory {
+
+	private final String prefix;
+	private final AtomicInteger counter = new AtomicInteger();
+
+	DaemonThreadFactory(@Nonnull String threadNamePrefix) {
+		prefix = threadNamePrefix;
+	}
+
+	@Override
+	public Thread newThread(@Nonnull Runnable r) {
+		Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
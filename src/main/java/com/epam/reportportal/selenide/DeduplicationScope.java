@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+/**
+ * Scope in which identical failure artifacts are attached only once.
+ */
+public enum DeduplicationScope {
+	/**
+	 * Artifacts are compared with ones attached anywhere in the current launch.
+	 */
+	LAUNCH,
+	/**
+	 * Artifacts are compared with ones attached in the current test only.
+	 */
+	TEST
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of WebDrivers which are used by a test thread, besides the one bound by Selenide. Drivers are kept by weak references, so a
+ * forgotten driver doesn't leak. The registry is also a {@link WebDriverListener}, which registers every driver it is attached to on the
+ * first call from a thread and unregisters it on quit.
+ */
+final class DriverTracker implements WebDriverListener {
+
+	private static final String DRIVER_LABEL_PATTERN = "browser %d";
+
+	private static final class TrackedDriver {
+		private final WeakReference<WebDriver> driver;
+		private final String label;
+
+		private TrackedDriver(@Nonnull WebDriver driver, @Nonnull String label) {
+			this.driver = new WeakReference<>(driver);
+			this.label = label;
+		}
+	}
+
+	private final ThreadLocal<List<TrackedDriver>> drivers = ThreadLocal.withInitial(ArrayList::new);
+	private final String currentLabel;
+
+	/**
+	 * @param currentLabel label of the Selenide driver if it is not registered, registered drivers can't use it
+	 */
+	DriverTracker(@Nonnull String currentLabel) {
+		this.currentLabel = currentLabel;
+	}
+
+	/**
+	 * Get the driver itself if it is wrapped by a decorator, so decorated and plain references to the same driver are not counted twice.
+	 *
+	 * @param driver a driver
+	 * @return the innermost driver
+	 */
+	@Nonnull
+	static WebDriver unwrap(@Nonnull WebDriver driver) {
+		WebDriver result = driver;
+		while (result instanceof WrapsDriver) {
+			WebDriver wrapped = ((WrapsDriver) result).getWrappedDriver();
+			if (wrapped == null || wrapped == result) {
+				break;
+			}
+			result = wrapped;
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static String nextLabel(@Nonnull List<TrackedDriver> tracked) {
+		int number = tracked.size() + 1;
+		String label;
+		do {
+			label = String.format(DRIVER_LABEL_PATTERN, number++);
+		} while (containsLabel(tracked, label));
+		return label;
+	}
+
+	private static boolean containsLabel(@Nonnull List<TrackedDriver> tracked, @Nonnull String label) {
+		for (TrackedDriver t : tracked) {
+			if (t.label.equals(label)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nullable
+	private static TrackedDriver find(@Nonnull List<TrackedDriver> tracked, @Nonnull WebDriver driver) {
+		tracked.removeIf(t -> t.driver.get() == null);
+		for (TrackedDriver t : tracked) {
+			if (t.driver.get() == driver) {
+				return t;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Register a driver on the current thread, a registered driver gets the new label. Labels identify attachments, so they should be
+	 * unique on the thread.
+	 *
+	 * @param label  attachment label
+	 * @param driver a driver
+	 * @throws IllegalArgumentException if the label is used by another driver of the thread or is the label of the Selenide driver
+	 */
+	void track(@Nonnull String label, @Nonnull WebDriver driver) {
+		if (label.equals(currentLabel)) {
+			throw new IllegalArgumentException("Driver label is reserved for Selenide driver: " + label);
+		}
+		WebDriver target = unwrap(driver);
+		List<TrackedDriver> tracked = drivers.get();
+		TrackedDriver existing = find(tracked, target);
+		for (TrackedDriver t : tracked) {
+			if (t != existing && t.label.equals(label)) {
+				throw new IllegalArgumentException("Driver label is already used by another driver: " + label);
+			}
+		}
+		if (existing != null) {
+			tracked.set(tracked.indexOf(existing), new TrackedDriver(target, label));
+		} else {
+			tracked.add(new TrackedDriver(target, label));
+		}
+	}
+
+	/**
+	 * Unregister a driver on the current thread.
+	 *
+	 * @param driver a driver
+	 */
+	void untrack(@Nonnull WebDriver driver) {
+		WebDriver target = unwrap(driver);
+		drivers.get().removeIf(t -> t.driver.get() == null || t.driver.get() == target);
+	}
+
+	/**
+	 * Get drivers registered on the current thread together with the given Selenide driver. The Selenide driver goes first, unless it is
+	 * registered with its own label.
+	 *
+	 * @param current Selenide driver of the current thread
+	 * @return drivers by their labels, in registration order
+	 */
+	@Nonnull
+	Map<String, WebDriver> drivers(@Nullable WebDriver current) {
+		List<TrackedDriver> tracked = drivers.get();
+		tracked.removeIf(t -> t.driver.get() == null);
+		Map<String, WebDriver> result = new LinkedHashMap<>();
+		WebDriver currentTarget = current == null ? null : unwrap(current);
+		if (current != null && find(tracked, currentTarget) == null) {
+			result.put(currentLabel, current);
+		}
+		for (TrackedDriver t : tracked) {
+			WebDriver driver = t.driver.get();
+			if (driver != null) {
+				result.put(t.label, driver == currentTarget ? current : driver);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+		List<TrackedDriver> tracked = drivers.get();
+		WebDriver target = unwrap(driver);
+		if (find(tracked, target) == null && !"quit".equals(method.getName())) {
+			tracked.add(new TrackedDriver(target, nextLabel(tracked)));
+		}
+	}
+
+	@Override
+	public void afterQuit(WebDriver driver) {
+		untrack(driver);
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Decides which Selenide events are logged. An event is accepted if its class is one of the enabled types or their subclass, and it
+ * passes an optional predicate. Class decisions are calculated once per event class and cached, so the check costs a single lookup.
+ */
+final class EventFilter {
+
+	private final List<Class<? extends LogEvent>> types;
+	private final Predicate<? super LogEvent> predicate;
+	private final ClassValue<Boolean> decisions = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return types.stream().anyMatch(t -> t.isAssignableFrom(type));
+		}
+	};
+
+	EventFilter(@Nonnull Collection<Class<? extends LogEvent>> enabledTypes, @Nullable Predicate<? super LogEvent> eventPredicate) {
+		types = List.copyOf(enabledTypes);
+		predicate = eventPredicate;
+	}
+
+	/**
+	 * Check if the event should be logged.
+	 *
+	 * @param event Selenide event
+	 * @return <code>true</code> if the event should be logged
+	 */
+	boolean accept(@Nonnull LogEvent event) {
+		return !types.isEmpty() && decisions.get(event.getClass()) && (predicate == null || predicate.test(event));
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Flight recorder settings: screenshots are taken before every given number of events, encoded with the frame encoder and kept in a
+ * per-test buffer, limited by frame number and total size. On a failure the buffer is attached and cleared, if the test passes the buffer
+ * is dropped with the test.
+ */
+final class FlightRecorder {
+
+	/**
+	 * Frame encoder which is used if none was given: a low-resolution JPEG, which usually takes a few dozen kilobytes.
+	 */
+	static final ScreenshotEncoder DEFAULT_ENCODER = ScreenshotEncoder.jpeg(0.6f).maxSize(960, 540);
+
+	/**
+	 * A screenshot taken before a step.
+	 */
+	static final class Frame {
+		private final String stepName;
+		private final byte[] screenshot;
+		private final String mediaType;
+
+		private Frame(@Nonnull String stepName, @Nonnull byte[] screenshot, @Nonnull String mediaType) {
+			this.stepName = stepName;
+			this.screenshot = screenshot;
+			this.mediaType = mediaType;
+		}
+
+		@Nonnull
+		String getStepName() {
+			return stepName;
+		}
+
+		@Nonnull
+		byte[] getScreenshot() {
+			return screenshot;
+		}
+
+		@Nonnull
+		String getMediaType() {
+			return mediaType;
+		}
+	}
+
+	/**
+	 * Frame buffer of a test, which is used by the test thread only. The oldest frames are evicted once the buffer is full.
+	 */
+	static final class Frames {
+		private final FlightRecorder recorder;
+		private final Deque<Frame> frames = new ArrayDeque<>();
+		private long bytes;
+		private long events;
+
+		private Frames(@Nonnull FlightRecorder recorder) {
+			this.recorder = recorder;
+		}
+
+		/**
+		 * Check if the buffer was created with the given settings.
+		 *
+		 * @param settings current flight recorder settings
+		 * @return <code>true</code> if the settings are the same
+		 */
+		boolean isOf(@Nonnull FlightRecorder settings) {
+			return recorder == settings;
+		}
+
+		/**
+		 * Count an event and check if a frame should be taken before it.
+		 *
+		 * @return <code>true</code> if a frame should be taken
+		 */
+		boolean nextEvent() {
+			return events++ % recorder.interval == 0;
+		}
+
+		/**
+		 * Put a frame into the buffer. A frame which doesn't fit into the buffer size alone is ignored.
+		 *
+		 * @param stepName   name of the step the frame was taken before
+		 * @param screenshot encoded screenshot bytes
+		 * @param mediaType  screenshot media type
+		 */
+		void add(@Nonnull String stepName, @Nonnull byte[] screenshot, @Nonnull String mediaType) {
+			if (screenshot.length > recorder.maxBytes) {
+				return;
+			}
+			frames.addLast(new Frame(stepName, screenshot, mediaType));
+			bytes += screenshot.length;
+			while (frames.size() > recorder.maxFrames || bytes > recorder.maxBytes) {
+				bytes -= frames.removeFirst().screenshot.length;
+			}
+		}
+
+		/**
+		 * Check if there are no frames in the buffer.
+		 *
+		 * @return <code>true</code> if the buffer is empty
+		 */
+		boolean isEmpty() {
+			return frames.isEmpty();
+		}
+
+		/**
+		 * Take all frames out of the buffer.
+		 *
+		 * @return frames from the oldest to the newest
+		 */
+		@Nonnull
+		List<Frame> drain() {
+			List<Frame> result = new ArrayList<>(frames);
+			frames.clear();
+			bytes = 0;
+			return result;
+		}
+	}
+
+	private final int maxFrames;
+	private final int interval;
+	private final long maxBytes;
+	private final ScreenshotEncoder encoder;
+
+	FlightRecorder(int maxFrames, int interval, long maxBytes, @Nonnull ScreenshotEncoder encoder) {
+		if (maxFrames < 1) {
+			throw new IllegalArgumentException("Flight recorder frame number should be positive: " + maxFrames);
+		}
+		if (interval < 1) {
+			throw new IllegalArgumentException("Flight recorder interval should be positive: " + interval);
+		}
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("Flight recorder buffer size should be positive: " + maxBytes);
+		}
+		this.maxFrames = maxFrames;
+		this.interval = interval;
+		this.maxBytes = maxBytes;
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Get the encoder which is applied to frames when they are taken.
+	 *
+	 * @return frame encoder
+	 */
+	@Nonnull
+	ScreenshotEncoder getEncoder() {
+		return encoder;
+	}
+
+	/**
+	 * Create an empty frame buffer for a test.
+	 *
+	 * @return frame buffer
+	 */
+	@Nonnull
+	Frames newFrames() {
+		return new Frames(this);
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Immutable snapshot of {@link ReportPortalSelenideEventListener} settings. The listener is shared by all test threads, so every setting
+ * change produces a new snapshot, and an event is processed with the snapshot which was current when the event came.
+ */
+final class ListenerConfiguration {
+
+	/**
+	 * Snapshot with default settings: screenshots and page sources are enabled, only {@link SelenideLog} events are logged.
+	 */
+	static final ListenerConfiguration DEFAULT = new ListenerConfiguration(new Builder());
+
+	/**
+	 * Mutable copy of a snapshot, which is used to apply a setting change.
+	 */
+	static final class Builder {
+		private final Map<String, Level> seleniumLogTypes;
+		private final Set<Class<? extends LogEvent>> selenideLogTypes;
+		private final Map<ArtifactType, Long> compressionThresholds;
+		private final Map<ArtifactType, Long> sizeLimits;
+		private Predicate<? super LogEvent> selenideLogFilter;
+		private boolean screenshots;
+		private boolean pageSources;
+		private int pageSourceDiffInterval;
+		private ScreenshotEncoder screenshotEncoder;
+		private ScreenshotStrategy screenshotStrategy;
+		private boolean bundleArtifacts;
+		private ArtifactDeduplicator deduplicator;
+		private AttachmentPolicy attachmentPolicy;
+		private AttachmentExecutor attachmentExecutor;
+		private long parallelCaptureTimeout;
+		private long captureTimeout;
+		private CaptureBreaker captureBreaker;
+		private int stepBatchSize;
+		private ListenerMetrics metrics;
+		private WebDriverLogCollector logCollector;
+		private AttachmentSpool spool;
+		private FlightRecorder flightRecorder;
+
+		private Builder() {
+			seleniumLogTypes = new LinkedHashMap<>();
+			selenideLogTypes = new LinkedHashSet<>(Collections.singleton(SelenideLog.class));
+			compressionThresholds = new EnumMap<>(ArtifactType.class);
+			sizeLimits = new EnumMap<>(ArtifactType.class);
+			screenshots = true;
+			pageSources = true;
+			screenshotEncoder = ScreenshotEncoder.NONE;
+			screenshotStrategy = ScreenshotStrategy.PAGE;
+			attachmentPolicy = AttachmentPolicies.always();
+			metrics = ListenerMetrics.NOOP;
+		}
+
+		private Builder(@Nonnull ListenerConfiguration configuration) {
+			seleniumLogTypes = new LinkedHashMap<>(configuration.seleniumLogTypes);
+			selenideLogTypes = new LinkedHashSet<>(configuration.selenideLogTypes);
+			compressionThresholds = copyOf(configuration.compressionThresholds);
+			sizeLimits = copyOf(configuration.sizeLimits);
+			selenideLogFilter = configuration.selenideLogFilter;
+			screenshots = configuration.screenshots;
+			pageSources = configuration.pageSources;
+			pageSourceDiffInterval = configuration.pageSourceDiffInterval;
+			screenshotEncoder = configuration.screenshotEncoder;
+			screenshotStrategy = configuration.screenshotStrategy;
+			bundleArtifacts = configuration.bundleArtifacts;
+			deduplicator = configuration.deduplicator;
+			attachmentPolicy = configuration.attachmentPolicy;
+			attachmentExecutor = configuration.attachmentExecutor;
+			parallelCaptureTimeout = configuration.parallelCaptureTimeout;
+			captureTimeout = configuration.captureTimeout;
+			captureBreaker = configuration.captureBreaker;
+			stepBatchSize = configuration.stepBatchSize;
+			metrics = configuration.metrics;
+			logCollector = configuration.logCollector;
+			spool = configuration.spool;
+			flightRecorder = configuration.flightRecorder;
+		}
+
+		@Nonnull
+		Map<String, Level> seleniumLogTypes() {
+			return seleniumLogTypes;
+		}
+
+		@Nonnull
+		Set<Class<? extends LogEvent>> selenideLogTypes() {
+			return selenideLogTypes;
+		}
+
+		@Nonnull
+		Map<ArtifactType, Long> compressionThresholds() {
+			return compressionThresholds;
+		}
+
+		@Nonnull
+		Map<ArtifactType, Long> sizeLimits() {
+			return sizeLimits;
+		}
+
+		void selenideLogFilter(@Nullable Predicate<? super LogEvent> selenideLogFilter) {
+			this.selenideLogFilter = selenideLogFilter;
+		}
+
+		void screenshots(boolean screenshots) {
+			this.screenshots = screenshots;
+		}
+
+		void pageSources(boolean pageSources) {
+			this.pageSources = pageSources;
+		}
+
+		void pageSourceDiffInterval(int pageSourceDiffInterval) {
+			this.pageSourceDiffInterval = pageSourceDiffInterval;
+		}
+
+		void screenshotEncoder(@Nonnull ScreenshotEncoder screenshotEncoder) {
+			this.screenshotEncoder = screenshotEncoder;
+		}
+
+		void screenshotStrategy(@Nonnull ScreenshotStrategy screenshotStrategy) {
+			this.screenshotStrategy = screenshotStrategy;
+		}
+
+		void bundleArtifacts(boolean bundleArtifacts) {
+			this.bundleArtifacts = bundleArtifacts;
+		}
+
+		void deduplicator(@Nullable ArtifactDeduplicator deduplicator) {
+			this.deduplicator = deduplicator;
+		}
+
+		void attachmentPolicy(@Nonnull AttachmentPolicy attachmentPolicy) {
+			this.attachmentPolicy = attachmentPolicy;
+		}
+
+		void attachmentExecutor(@Nullable AttachmentExecutor attachmentExecutor) {
+			this.attachmentExecutor = attachmentExecutor;
+		}
+
+		void parallelCaptureTimeout(long parallelCaptureTimeout) {
+			this.parallelCaptureTimeout = parallelCaptureTimeout;
+		}
+
+		void captureTimeout(long captureTimeout) {
+			this.captureTimeout = captureTimeout;
+		}
+
+		void captureBreaker(@Nullable CaptureBreaker captureBreaker) {
+			this.captureBreaker = captureBreaker;
+		}
+
+		void stepBatchSize(int stepBatchSize) {
+			this.stepBatchSize = stepBatchSize;
+		}
+
+		void metrics(@Nonnull ListenerMetrics metrics) {
+			this.metrics = metrics;
+		}
+
+		void logCollector(@Nullable WebDriverLogCollector logCollector) {
+			this.logCollector = logCollector;
+		}
+
+		void spool(@Nullable AttachmentSpool spool) {
+			this.spool = spool;
+		}
+
+		void flightRecorder(@Nullable FlightRecorder flightRecorder) {
+			this.flightRecorder = flightRecorder;
+		}
+	}
+
+	private final Map<String, Level> seleniumLogTypes;
+	private final Set<Class<? extends LogEvent>> selenideLogTypes;
+	private final Map<ArtifactType, Long> compressionThresholds;
+	private final Map<ArtifactType, Long> sizeLimits;
+	private final Predicate<? super LogEvent> selenideLogFilter;
+	private final EventFilter eventFilter;
+	private final boolean screenshots;
+	private final boolean pageSources;
+	private final int pageSourceDiffInterval;
+	private final ScreenshotEncoder screenshotEncoder;
+	private final ScreenshotStrategy screenshotStrategy;
+	private final boolean bundleArtifacts;
+	private final ArtifactDeduplicator deduplicator;
+	private final AttachmentPolicy attachmentPolicy;
+	private final AttachmentExecutor attachmentExecutor;
+	private final long parallelCaptureTimeout;
+	private final long captureTimeout;
+	private final CaptureBreaker captureBreaker;
+	private final int stepBatchSize;
+	private final ListenerMetrics metrics;
+	private final WebDriverLogCollector logCollector;
+	private final AttachmentSpool spool;
+	private final FlightRecorder flightRecorder;
+
+	private ListenerConfiguration(@Nonnull Builder builder) {
+		seleniumLogTypes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.seleniumLogTypes));
+		selenideLogTypes = Collections.unmodifiableSet(new HashSet<>(builder.selenideLogTypes));
+		compressionThresholds = Collections.unmodifiableMap(copyOf(builder.compressionThresholds));
+		sizeLimits = Collections.unmodifiableMap(copyOf(builder.sizeLimits));
+		selenideLogFilter = builder.selenideLogFilter;
+		eventFilter = new EventFilter(selenideLogTypes, selenideLogFilter);
+		screenshots = builder.screenshots;
+		pageSources = builder.pageSources;
+		pageSourceDiffInterval = builder.pageSourceDiffInterval;
+		screenshotEncoder = builder.screenshotEncoder;
+		screenshotStrategy = builder.screenshotStrategy;
+		bundleArtifacts = builder.bundleArtifacts;
+		deduplicator = builder.deduplicator;
+		attachmentPolicy = builder.attachmentPolicy;
+		attachmentExecutor = builder.attachmentExecutor;
+		parallelCaptureTimeout = builder.parallelCaptureTimeout;
+		captureTimeout = builder.captureTimeout;
+		captureBreaker = builder.captureBreaker;
+		stepBatchSize = builder.stepBatchSize;
+		metrics = builder.metrics;
+		logCollector = builder.logCollector;
+		spool = builder.spool;
+		flightRecorder = builder.flightRecorder;
+	}
+
+	@Nonnull
+	private static Map<ArtifactType, Long> copyOf(@Nonnull Map<ArtifactType, Long> values) {
+		// EnumMap copy constructor can't get the key type from an empty map which is not an EnumMap
+		Map<ArtifactType, Long> result = new EnumMap<>(ArtifactType.class);
+		result.putAll(values);
+		return result;
+	}
+
+	/**
+	 * Create a new snapshot with the given change applied, the current one stays untouched. The change may be applied more than once if
+	 * there is a concurrent update, so it should have no side effects.
+	 *
+	 * @param change setting change
+	 * @return new snapshot
+	 */
+	@Nonnull
+	ListenerConfiguration update(@Nonnull Consumer<Builder> change) {
+		Builder builder = new Builder(this);
+		change.accept(builder);
+		return new ListenerConfiguration(builder);
+	}
+
+	@Nonnull
+	Map<String, Level> getSeleniumLogTypes() {
+		return seleniumLogTypes;
+	}
+
+	@Nonnull
+	Set<Class<? extends LogEvent>> getSelenideLogTypes() {
+		return selenideLogTypes;
+	}
+
+	@Nonnull
+	EventFilter getEventFilter() {
+		return eventFilter;
+	}
+
+	@Nonnull
+	Map<ArtifactType, Long> getCompressionThresholds() {
+		return compressionThresholds;
+	}
+
+	@Nonnull
+	Map<ArtifactType, Long> getSizeLimits() {
+		return sizeLimits;
+	}
+
+	boolean isScreenshots() {
+		return screenshots;
+	}
+
+	boolean isPageSources() {
+		return pageSources;
+	}
+
+	int getPageSourceDiffInterval() {
+		return pageSourceDiffInterval;
+	}
+
+	@Nonnull
+	ScreenshotEncoder getScreenshotEncoder() {
+		return screenshotEncoder;
+	}
+
+	@Nonnull
+	ScreenshotStrategy getScreenshotStrategy() {
+		return screenshotStrategy;
+	}
+
+	boolean isBundleArtifacts() {
+		return bundleArtifacts;
+	}
+
+	@Nullable
+	ArtifactDeduplicator getDeduplicator() {
+		return deduplicator;
+	}
+
+	@Nonnull
+	AttachmentPolicy getAttachmentPolicy() {
+		return attachmentPolicy;
+	}
+
+	@Nullable
+	AttachmentExecutor getAttachmentExecutor() {
+		return attachmentExecutor;
+	}
+
+	long getParallelCaptureTimeout() {
+		return parallelCaptureTimeout;
+	}
+
+	long getCaptureTimeout() {
+		return captureTimeout;
+	}
+
+	@Nullable
+	CaptureBreaker getCaptureBreaker() {
+		return captureBreaker;
+	}
+
+	int getStepBatchSize() {
+		return stepBatchSize;
+	}
+
+	@Nonnull
+	ListenerMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Nullable
+	WebDriverLogCollector getLogCollector() {
+		return logCollector;
+	}
+
+	@Nullable
+	AttachmentSpool getSpool() {
+		return spool;
+	}
+
+	@Nullable
+	FlightRecorder getFlightRecorder() {
+		return flightRecorder;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Metrics interface of {@link ReportPortalSelenideEventListener}, which receives timings of listener work phases and attachment
+ * statistics. Implementations can pass them to any metrics library, E.G. to Micrometer timers and counters, or use
+ * {@link SimpleListenerMetrics}.
+ * <p>
+ * Methods are called from test threads and from capture and attachment threads, so implementations should be thread-safe and fast. All
+ * methods do nothing by default.
+ */
+public interface ListenerMetrics {
+
+	/**
+	 * Metrics which are ignored.
+	 */
+	ListenerMetrics NOOP = new ListenerMetrics() {
+	};
+
+	/**
+	 * Listener work phase.
+	 */
+	enum Phase {
+		/**
+		 * Step start in Report Portal client, on every logged Selenide event.
+		 */
+		STEP_START,
+		/**
+		 * Screenshot request to WebDriver, tagged with <code>FRAME</code> for flight recorder frames.
+		 */
+		SCREENSHOT_CAPTURE,
+		/**
+		 * Page source request to WebDriver.
+		 */
+		PAGE_SOURCE_CAPTURE,
+		/**
+		 * Selenium logs request to WebDriver, tagged with the log type.
+		 */
+		SELENIUM_LOG_CAPTURE,
+		/**
+		 * Attachment encoding and compression, tagged with the artifact type, or with <code>FRAME</code> for flight recorder frames.
+		 */
+		ENCODING,
+		/**
+		 * Attachment hand-off to Report Portal client, tagged with the artifact type.
+		 */
+		LOG_EMIT
+	}
+
+	/**
+	 * Tag of phases which process several artifacts bundled into a single attachment.
+	 */
+	String BUNDLE_TAG = "BUNDLE";
+
+	/**
+	 * Record time spent in a listener work phase.
+	 *
+	 * @param phase phase of listener work
+	 * @param tag   phase detail, E.G. Selenium log type or artifact type name, <code>null</code> if the phase has no details
+	 * @param nanos time spent in nanoseconds
+	 */
+	default void recordTime(@Nonnull Phase phase, @Nullable String tag, long nanos) {
+	}
+
+	/**
+	 * Record an attachment passed to Report Portal client.
+	 *
+	 * @param type  type of the attached artifact, <code>null</code> for bundled artifacts
+	 * @param bytes attachment size after encoding and compression
+	 */
+	default void recordAttachment(@Nullable ArtifactType type, long bytes) {
+	}
+
+	/**
+	 * Record a Selenide event which was not logged because of its type or event filter.
+	 *
+	 * @param event skipped event
+	 */
+	default void recordSkippedEvent(@Nonnull LogEvent event) {
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Bounded buffer of the latest WebDriver log entries of a single type. Keeps at most the given number of entries which are not older
+ * than the given age, older entries are dropped as new ones come.
+ */
+final class LogRing {
+
+	private final String logType;
+	private final int maxEntries;
+	private final long maxAgeMillis;
+	private final Deque<LogEntry> entries = new ArrayDeque<>();
+
+	LogRing(@Nonnull String logType, int maxEntries, long maxAgeMillis) {
+		this.logType = logType;
+		this.maxEntries = maxEntries;
+		this.maxAgeMillis = maxAgeMillis;
+	}
+
+	private void evict(long now) {
+		while (!entries.isEmpty() && (entries.size() > maxEntries || entries.peekFirst().getTimestamp() < now - maxAgeMillis)) {
+			entries.pollFirst();
+		}
+	}
+
+	/**
+	 * Move new log entries from WebDriver to the buffer. WebDriver returns only entries which were not read before.
+	 *
+	 * @param driver WebDriver to read logs from
+	 * @param level  minimal level of entries to keep
+	 */
+	synchronized void poll(@Nonnull WebDriver driver, @Nonnull Level level) {
+		int minLevel = level.intValue();
+		for (LogEntry entry : driver.manage().logs().get(logType)) {
+			if (entry.getLevel().intValue() >= minLevel) {
+				entries.addLast(entry);
+				if (entries.size() > maxEntries) {
+					entries.pollFirst();
+				}
+			}
+		}
+		evict(System.currentTimeMillis());
+	}
+
+	/**
+	 * Read the latest entries from WebDriver and take all buffered entries, the buffer is emptied.
+	 *
+	 * @param driver WebDriver to read logs from
+	 * @param level  minimal level of entries to keep
+	 * @return buffered entries, the oldest first
+	 */
+	@Nonnull
+	synchronized List<String> drain(@Nonnull WebDriver driver, @Nonnull Level level) {
+		poll(driver, level);
+		List<String> result = new ArrayList<>(entries.size());
+		entries.forEach(e -> result.add(String.valueOf(e)));
+		entries.clear();
+		return result;
+	}
+}
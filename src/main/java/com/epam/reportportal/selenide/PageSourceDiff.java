@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line diff of two page sources in unified format. Common leading and trailing lines are skipped at once, the rest is aligned by the
+ * longest common subsequence. If the changed region is too large to align, it is reported as replaced entirely, so memory used for a
+ * diff stays bounded.
+ */
+final class PageSourceDiff {
+
+	private static final int CONTEXT = 3;
+	private static final long MAX_CELLS = 1L << 20;
+	private static final char EQUAL = ' ';
+	private static final char DELETE = '-';
+	private static final char INSERT = '+';
+
+	private PageSourceDiff() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	private static void align(@Nonnull String[] a, int aStart, int aEnd, @Nonnull String[] b, int bStart, int bEnd,
+			@Nonnull StringBuilder ops) {
+		int n = aEnd - aStart;
+		int m = bEnd - bStart;
+		if ((long) n * m > MAX_CELLS) {
+			ops.append(String.valueOf(DELETE).repeat(n)).append(String.valueOf(INSERT).repeat(m));
+			return;
+		}
+		int[][] lcs = new int[n + 1][m + 1];
+		for (int i = n - 1; i >= 0; i--) {
+			for (int j = m - 1; j >= 0; j--) {
+				lcs[i][j] = a[aStart + i].equals(b[bStart + j]) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+			}
+		}
+		int i = 0;
+		int j = 0;
+		while (i < n && j < m) {
+			if (a[aStart + i].equals(b[bStart + j])) {
+				ops.append(EQUAL);
+				i++;
+				j++;
+			} else if (lcs[i + 1][j] >= lcs[i][j + 1]) {
+				ops.append(DELETE);
+				i++;
+			} else {
+				ops.append(INSERT);
+				j++;
+			}
+		}
+		ops.append(String.valueOf(DELETE).repeat(n - i)).append(String.valueOf(INSERT).repeat(m - j));
+	}
+
+	@Nonnull
+	private static String range(int start, int count) {
+		// Unified format points to the line before an empty range
+		return (count == 0 ? start : start + 1) + "," + count;
+	}
+
+	/**
+	 * Get unified diff of two page sources.
+	 *
+	 * @param fileName file name for diff header
+	 * @param previous previous page source
+	 * @param current  current page source
+	 * @return diff lines, only the header if the sources are equal
+	 */
+	@Nonnull
+	static List<String> diff(@Nonnull String fileName, @Nonnull String previous, @Nonnull String current) {
+		String[] a = previous.split("\n", -1);
+		String[] b = current.split("\n", -1);
+		int prefix = 0;
+		while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < a.length - prefix && suffix < b.length - prefix && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+			suffix++;
+		}
+		StringBuilder ops = new StringBuilder();
+		ops.append(String.valueOf(EQUAL).repeat(prefix));
+		align(a, prefix, a.length - suffix, b, prefix, b.length - suffix, ops);
+		ops.append(String.valueOf(EQUAL).repeat(suffix));
+
+		int length = ops.length();
+		int[] aAt = new int[length + 1];
+		int[] bAt = new int[length + 1];
+		for (int k = 0; k < length; k++) {
+			char op = ops.charAt(k);
+			aAt[k + 1] = aAt[k] + (op == INSERT ? 0 : 1);
+			bAt[k + 1] = bAt[k] + (op == DELETE ? 0 : 1);
+		}
+
+		List<String> result = new ArrayList<>();
+		result.add("--- " + fileName);
+		result.add("+++ " + fileName);
+		int k = 0;
+		while (k < length) {
+			if (ops.charAt(k) == EQUAL) {
+				k++;
+				continue;
+			}
+			int start = Math.max(0, k - CONTEXT);
+			int end = k;
+			int j = k;
+			while (j < length) {
+				if (ops.charAt(j) != EQUAL) {
+					end = ++j;
+					continue;
+				}
+				int run = j;
+				while (run < length && ops.charAt(run) == EQUAL) {
+					run++;
+				}
+				if (run == length || run - j > 2 * CONTEXT) {
+					break;
+				}
+				j = run;
+			}
+			int stop = Math.min(length, end + CONTEXT);
+			result.add("@@ -" + range(aAt[start], aAt[stop] - aAt[start]) + " +" + range(bAt[start], bAt[stop] - bAt[start]) + " @@");
+			for (int t = start; t < stop; t++) {
+				char op = ops.charAt(t);
+				result.add(op + (op == INSERT ? b[bAt[t]] : a[aAt[t]]));
+			}
+			k = stop;
+		}
+		return result;
+	}
+}
@@ -20,22 +20,32 @@ import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.WebDriverRunner;
 import com.codeborne.selenide.logevents.LogEvent;
 import com.codeborne.selenide.logevents.LogEventListener;
-import com.codeborne.selenide.logevents.SelenideLog;
 import com.epam.reportportal.listeners.ItemStatus;
 import com.epam.reportportal.listeners.LogLevel;
 import com.epam.reportportal.message.ReportPortalMessage;
+import com.epam.reportportal.message.TypeAwareByteSource;
 import com.epam.reportportal.service.Launch;
 import com.epam.reportportal.service.ReportPortal;
-import com.epam.reportportal.utils.files.ByteSource;
+import com.epam.reportportal.service.step.StepReporter;
+import io.reactivex.Maybe;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
 
@@ -55,26 +65,59 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	public static final Function<String, String> DEFAULT_STEP_NAME_CONVERTER = log -> log;
 
 	private static final String SCREENSHOT_MESSAGE = "Screenshot";
+	private static final String FRAME_MESSAGE_PATTERN = "Screenshot before '%s'";
 	private static final String PAGE_SOURCE_MESSAGE = "Page source";
+	private static final String PAGE_SOURCE_DIFF_MESSAGE_PATTERN = "%s diff from the previous failure";
 	private static final String SELENIUM_LOG_MESSAGE_PATTERN = "WebDriver logs of '%s' type";
-	private static final String SELENIUM_SCREENSHOT_TYPE = "image/png";
+	private static final String SCREENSHOT_TYPE = "image/png";
 	private static final String SELENIUM_PAGE_SOURCE_TYPE = "text/html";
 	private static final String SELENIUM_LOG_TYPE = "text/plain";
+	private static final String PAGE_SOURCE_DIFF_TYPE = "text/x-diff";
+	private static final String SCREENSHOT_ARTIFACT = "screenshot";
+	private static final String PAGE_SOURCE_ARTIFACT = "page source";
+	private static final String SELENIUM_LOG_ARTIFACT_PATTERN = "'%s' logs";
+	private static final String CAPTURE_THREAD_NAME_PREFIX = "rp-selenide-capture-";
+	// A capture which timed out may still hang on its WebDriver request, so the number of such threads is limited by the pool size
+	private static final int CAPTURE_THREADS = 32;
+	private static final String DEFAULT_DRIVER_LABEL = "default browser";
+	private static final String SESSION_ARTIFACTS = "artifacts";
+	private static final String CAPTURE_STOPPED_MESSAGE_PATTERN = "the session is not responding, stopped after %d timeouts in a row";
+
+	private static final String SCREENSHOT_FILE_NAME = "screenshot.png";
+	private static final String FRAME_FILE_NAME_PATTERN = "frame-%d.%s";
+	private static final String FRAME_METRICS_TAG = "FRAME";
+	private static final String PAGE_SOURCE_FILE_NAME = "page-source.html";
+	private static final String PAGE_SOURCE_DIFF_FILE_EXTENSION = ".diff";
+	private static final String PAGE_SOURCE_DIFF_SEPARATOR = "\n";
+	private static final String SELENIUM_LOG_FILE_NAME_PATTERN = "%s.log";
+	private static final String SELENIUM_LOG_SEPARATOR = "\n\n";
+	private static final String ARTIFACT_BUNDLE_MESSAGE = "Failure artifacts";
+	private static final String DUPLICATE_ARTIFACT_MESSAGE_PATTERN = "%s is the same as attached to step '%s'";
+
+	/**
+	 * Fetches an artifact from WebDriver, returns <code>null</code> if there is nothing to attach.
+	 */
+	@FunctionalInterface
+	private interface Capture {
+		@Nullable
+		Artifact fetch() throws Exception;
+	}
 
 	private final String logLevel;
 
 	private final Function<String, String> converter;
 
-	private final Map<String, Level> seleniumLogTypes = new HashMap<>();
-	private final Set<Class<? extends LogEvent>> selenideLogTypes = new HashSet<>(Collections.singleton(SelenideLog.class));
-	private boolean screenshots = true;
-	private boolean pageSources = true;
+	// Settings are replaced as a whole, so events are processed without locks while settings may change on another thread
+	private final AtomicReference<ListenerConfiguration> configuration = new AtomicReference<>(ListenerConfiguration.DEFAULT);
+	private volatile ExecutorService captureExecutor;
+	private final ThreadLocal<StepContext> stepContext = new ThreadLocal<>();
+	private final DriverTracker driverTracker = new DriverTracker(DEFAULT_DRIVER_LABEL);
 
 	/**
 	 * Create listener instance with specified log level and step name converter.
 	 *
 	 * @param defaultLogLevel logging level of attachments
-	 * @param stepConverter   step name converter, suitable to sanitize step string from secret data
+	 * @param stepConverter   step name converter, suitable to sanitize step string from secret data, see {@link StepNameConverter}
 	 */
 	public ReportPortalSelenideEventListener(@Nonnull LogLevel defaultLogLevel, Function<String, String> stepConverter) {
 		logLevel = defaultLogLevel.name();
@@ -97,6 +140,16 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 		this(LogLevel.INFO);
 	}
 
+	@Nonnull
+	private ListenerConfiguration configure(@Nonnull Consumer<ListenerConfiguration.Builder> change) {
+		return configuration.getAndUpdate(c -> c.update(change));
+	}
+
+	private void replaceAttachmentExecutor(@Nullable AttachmentExecutor executor) {
+		ListenerConfiguration previous = configure(c -> c.attachmentExecutor(executor));
+		ofNullable(previous.getAttachmentExecutor()).ifPresent(AttachmentExecutor::shutdown);
+	}
+
 	/**
 	 * Set screenshot on failure logging enable/disable. Enabled by default.
 	 *
@@ -104,7 +157,7 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener logScreenshots(boolean logScreenshots) {
-		this.screenshots = logScreenshots;
+		configure(c -> c.screenshots(logScreenshots));
 		return this;
 	}
 
@@ -115,7 +168,185 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener logPageSources(boolean logPageSources) {
-		this.pageSources = logPageSources;
+		configure(c -> c.pageSources(logPageSources));
+		return this;
+	}
+
+	/**
+	 * Enable page source diff mode. The first page source in a test is attached in full, for the next failures in the same test only a
+	 * unified diff from the previous attached page source is attached. Every given number of failures a full page source is attached
+	 * again, so any of them can be restored from the nearest full one and a few diffs. If a diff is not smaller than the page source
+	 * itself, the full page source is attached instead.
+	 *
+	 * @param fullSnapshotInterval attach a full page source every given number of attached page sources, should be greater than 1
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enablePageSourceDiff(int fullSnapshotInterval) {
+		if (fullSnapshotInterval < 2) {
+			throw new IllegalArgumentException("Full page source interval should be greater than 1: " + fullSnapshotInterval);
+		}
+		configure(c -> c.pageSourceDiffInterval(fullSnapshotInterval));
+		return this;
+	}
+
+	/**
+	 * Disable page source diff mode, every page source will be attached in full.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disablePageSourceDiff() {
+		configure(c -> c.pageSourceDiffInterval(0));
+		return this;
+	}
+
+	/**
+	 * Set screenshot encoding stage, which is applied to every screenshot before upload. By default, screenshots are attached as is, in PNG
+	 * format.
+	 *
+	 * @param encoder screenshot encoder, E.G. <code>ScreenshotEncoder.jpeg(0.7f).maxSize(1280, 1024)</code>
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener screenshotEncoder(@Nonnull ScreenshotEncoder encoder) {
+		configure(c -> c.screenshotEncoder(encoder));
+		return this;
+	}
+
+	/**
+	 * Set screenshot strategy, which defines what is captured on failure. By default, the whole browser viewport is captured.
+	 *
+	 * @param strategy screenshot strategy, E.G. <code>ScreenshotStrategy.element().withMargin(50).orPage()</code>
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener screenshotStrategy(@Nonnull ScreenshotStrategy strategy) {
+		configure(c -> c.screenshotStrategy(strategy));
+		return this;
+	}
+
+	/**
+	 * Enable GZIP compression of certain artifact type. Artifacts which are smaller than the threshold are attached as is.
+	 *
+	 * @param artifactType   type of artifacts to compress
+	 * @param thresholdBytes minimal artifact size in bytes to compress it
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableCompression(@Nonnull ArtifactType artifactType, long thresholdBytes) {
+		if (thresholdBytes < 0) {
+			throw new IllegalArgumentException("Compression threshold should not be negative: " + thresholdBytes);
+		}
+		configure(c -> c.compressionThresholds().put(artifactType, thresholdBytes));
+		return this;
+	}
+
+	/**
+	 * Disable compression of certain artifact type.
+	 *
+	 * @param artifactType type of artifacts to attach uncompressed
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableCompression(@Nonnull ArtifactType artifactType) {
+		configure(c -> c.compressionThresholds().remove(artifactType));
+		return this;
+	}
+
+	/**
+	 * Limit size of textual artifacts of certain type. Larger page sources are cut at the end, larger Selenium logs lose their earliest
+	 * entries, in both cases a truncation marker is added. That bounds memory used for a failure. Screenshots are not affected, use
+	 * {@link ScreenshotEncoder#maxBytes(int)} for them.
+	 *
+	 * @param artifactType type of artifacts to limit
+	 * @param maxBytes     maximum artifact size in bytes
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableSizeLimit(@Nonnull ArtifactType artifactType, long maxBytes) {
+		if (maxBytes < 1) {
+			throw new IllegalArgumentException("Artifact size limit should be positive: " + maxBytes);
+		}
+		configure(c -> c.sizeLimits().put(artifactType, maxBytes));
+		return this;
+	}
+
+	/**
+	 * Remove size limit of certain artifact type.
+	 *
+	 * @param artifactType type of artifacts to attach in full
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableSizeLimit(@Nonnull ArtifactType artifactType) {
+		configure(c -> c.sizeLimits().remove(artifactType));
+		return this;
+	}
+
+	/**
+	 * Enable duplicate artifact suppression. An artifact which is byte-identical to one already attached in the given scope is replaced
+	 * with a short log entry referring to the original. Content hashes are kept in a bounded LRU cache.
+	 *
+	 * @param scope     where to look for identical artifacts: in the whole launch or in the current test only
+	 * @param cacheSize maximum number of remembered artifacts
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableDeduplication(@Nonnull DeduplicationScope scope, int cacheSize) {
+		ArtifactDeduplicator deduplicator = new ArtifactDeduplicator(scope, cacheSize);
+		configure(c -> c.deduplicator(deduplicator));
+		return this;
+	}
+
+	/**
+	 * Disable duplicate artifact suppression, every artifact will be attached.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableDeduplication() {
+		configure(c -> c.deduplicator(null));
+		return this;
+	}
+
+	/**
+	 * Set a policy which decides which failures get artifacts attached, E.G. only first failures in a test or not more than a certain
+	 * number of failures per second. By default, artifacts are attached on every failure.
+	 *
+	 * @param policy attachment policy, see {@link AttachmentPolicies} for common ones
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener attachmentPolicy(@Nonnull AttachmentPolicy policy) {
+		configure(c -> c.attachmentPolicy(policy));
+		return this;
+	}
+
+	/**
+	 * Enable attachment spool. Encoded attachments which are waiting for their test items to be started by Report Portal client are kept in
+	 * memory up to the given total size, the rest are written into temporary files in the given directory. The client reads an attachment
+	 * back into a log request once its test item is started and holds the data until the request is sent, the spool doesn't limit that.
+	 * Files are removed once the client has read them.
+	 *
+	 * @param memoryCapBytes maximum total size of attachments kept in memory
+	 * @param directory      directory for temporary files, created if it does not exist
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableSpool(long memoryCapBytes, @Nonnull Path directory) {
+		AttachmentSpool spool = new AttachmentSpool(memoryCapBytes, directory);
+		configure(c -> c.spool(spool));
+		return this;
+	}
+
+	/**
+	 * Disable attachment spool, all attachments will be kept in memory until sent.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableSpool() {
+		configure(c -> c.spool(null));
+		return this;
+	}
+
+	/**
+	 * Set page sources and Selenium logs bundling enable/disable. If enabled, they are packed into a single ZIP attachment with one entry
+	 * per artifact, instead of separate attachments. Disabled by default.
+	 *
+	 * @param bundle use <code>true</code> to enable bundling
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener bundleArtifacts(boolean bundle) {
+		configure(c -> c.bundleArtifacts(bundle));
 		return this;
 	}
 
@@ -127,7 +358,7 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener enableSeleniumLogs(@Nonnull String logType, @Nonnull Level logLevel) {
-		seleniumLogTypes.put(logType, logLevel);
+		configure(c -> c.seleniumLogTypes().put(logType, logLevel));
 		return this;
 	}
 
@@ -138,18 +369,45 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener disableSeleniumLogs(@Nonnull String logType) {
-		seleniumLogTypes.remove(logType);
+		configure(c -> c.seleniumLogTypes().remove(logType));
+		return this;
+	}
+
+	/**
+	 * Enable incremental collection of enabled Selenium logs. In this mode logs are read from WebDriver after passed steps, not more often
+	 * than once a second, into a bounded buffer per log type. On a failure only the entries which came since the last read are requested
+	 * from WebDriver, and the buffer is attached, so failure handling time and memory don't depend on the test length. Entries which were
+	 * attached are removed from the buffer.
+	 *
+	 * @param maxEntries maximum number of latest entries to keep per log type
+	 * @param maxAge     maximum age of entries to keep
+	 * @param unit       time unit of the age argument
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableLogCollection(int maxEntries, long maxAge, @Nonnull TimeUnit unit) {
+		WebDriverLogCollector collector = new WebDriverLogCollector(maxEntries, maxAge, unit);
+		configure(c -> c.logCollector(collector));
+		return this;
+	}
+
+	/**
+	 * Disable incremental collection of Selenium logs, they will be read from WebDriver on a failure only.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableLogCollection() {
+		configure(c -> c.logCollector(null));
 		return this;
 	}
 
 	/**
-	 * Enable custom selenide step logging.
+	 * Enable custom selenide step logging. Subclasses of the given type are logged too.
 	 *
 	 * @param selenideLogType type of selenide event to enable logging
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener enableSelenideLogs(@Nonnull Class<? extends LogEvent> selenideLogType) {
-		selenideLogTypes.add(selenideLogType);
+		configure(c -> c.selenideLogTypes().add(selenideLogType));
 		return this;
 	}
 
@@ -160,83 +418,911 @@ public class ReportPortalSelenideEventListener implements LogEventListener {
 	 * @return self instance for convenience
 	 */
 	public ReportPortalSelenideEventListener disableSelenideLogs(@Nonnull Class<? extends LogEvent> selenideLogType) {
-		selenideLogTypes.remove(selenideLogType);
+		configure(c -> c.selenideLogTypes().remove(selenideLogType));
+		return this;
+	}
+
+	/**
+	 * Set an additional filter of selenide step logging, E.G. by event subject or element. Only events of enabled types which pass the
+	 * filter are logged. The filter is called twice for every step, before and after it, and should give the same answer both times.
+	 *
+	 * @param filter event filter, see {@link SelenideLogFilters} for common ones, <code>null</code> to remove the filter
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener filterSelenideLogs(@Nullable Predicate<? super LogEvent> filter) {
+		configure(c -> c.selenideLogFilter(filter));
+		return this;
+	}
+
+	/**
+	 * Enable step batching. In this mode consecutive passed Selenide events are reported as a single step, which is named after the first
+	 * event and has the rest of them as log entries. A failed event is always reported as a separate step with its attachments. The last
+	 * batch step of a test is finished together with the test.
+	 * <p>
+	 * Suitable for data-driven tests with thousands of interactions, where a step per interaction overloads Report Portal.
+	 *
+	 * @param maxSteps maximum number of events in a single step
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableStepBatching(int maxSteps) {
+		if (maxSteps < 1) {
+			throw new IllegalArgumentException("Step batch size should be positive: " + maxSteps);
+		}
+		configure(c -> c.stepBatchSize(maxSteps));
+		return this;
+	}
+
+	/**
+	 * Disable step batching, every Selenide event will be reported as a separate step.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableStepBatching() {
+		configure(c -> c.stepBatchSize(0));
+		return this;
+	}
+
+	/**
+	 * Set metrics which receive timings of listener work phases, E.G. WebDriver requests and attachment encoding, and attachment
+	 * statistics. By default, metrics are not collected.
+	 *
+	 * @param metrics metrics implementation, E.G. {@link SimpleListenerMetrics}
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener metrics(@Nonnull ListenerMetrics metrics) {
+		configure(c -> c.metrics(metrics));
+		return this;
+	}
+
+	/**
+	 * Enable parallel artifact capture. In this mode screenshot, page source and all enabled Selenium logs are requested from WebDriver at
+	 * the same time, so a failure takes as long as the slowest request instead of the sum of them. Artifacts which were not got within the
+	 * timeout are skipped with an error log, the rest are attached as usual.
+	 * <p>
+	 * Should be used with drivers which accept concurrent commands, E.G. {@link org.openqa.selenium.remote.RemoteWebDriver}.
+	 * <p>
+	 * Artifacts are requested on a thread pool shared by all tests, which has at most 32 threads, a request waiting for a free thread
+	 * counts against the timeout. See {@link #shutdownCapture()}.
+	 *
+	 * @param timeout maximum time to wait for each artifact
+	 * @param unit    time unit of the timeout argument
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableParallelCapture(long timeout, @Nonnull TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Capture timeout should be positive: " + timeout);
+		}
+		long timeoutNanos = unit.toNanos(timeout);
+		configure(c -> c.parallelCaptureTimeout(timeoutNanos));
+		return this;
+	}
+
+	/**
+	 * Disable parallel artifact capture, artifacts will be requested from WebDriver one by one.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableParallelCapture() {
+		configure(c -> c.parallelCaptureTimeout(0));
 		return this;
 	}
 
-	private boolean skip(LogEvent currentLog) {
-		return !selenideLogTypes.contains(currentLog.getClass());
+	/**
+	 * Enable artifact capture timeout. In this mode screenshot, page source and Selenium logs are still requested one by one, but each of
+	 * them on a separate thread, and artifacts which were not got within the timeout are skipped with an error log. That way a hung
+	 * browser doesn't block a test until the remote command timeout. Parallel capture mode has its own timeout, which is used instead.
+	 * <p>
+	 * Artifacts are requested on a thread pool shared by all tests, which has at most 32 threads, a request waiting for a free thread
+	 * counts against the timeout. See {@link #shutdownCapture()}.
+	 *
+	 * @param timeout maximum time to wait for each artifact
+	 * @param unit    time unit of the timeout argument
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableCaptureTimeout(long timeout, @Nonnull TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Capture timeout should be positive: " + timeout);
+		}
+		long timeoutNanos = unit.toNanos(timeout);
+		configure(c -> c.captureTimeout(timeoutNanos));
+		return this;
+	}
+
+	/**
+	 * Disable artifact capture timeout, artifacts will be requested on a test thread.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableCaptureTimeout() {
+		configure(c -> c.captureTimeout(0));
+		return this;
+	}
+
+	/**
+	 * Stop the threads which request artifacts in parallel capture and capture timeout modes, requests which are still running are
+	 * interrupted. Suitable to call at the end of a suite. If artifacts are captured after that, new threads are started.
+	 */
+	public void shutdownCapture() {
+		ExecutorService executor;
+		synchronized (this) {
+			executor = captureExecutor;
+			captureExecutor = null;
+		}
+		ofNullable(executor).ifPresent(ExecutorService::shutdownNow);
+	}
+
+	/**
+	 * Enable capture circuit breaker. Once a WebDriver session didn't respond in time the given number of times in a row, artifacts are
+	 * not requested from it anymore, and every next failure gets a single error log instead. Makes sense together with
+	 * {@link #enableCaptureTimeout(long, TimeUnit)} or {@link #enableParallelCapture(long, TimeUnit)}, otherwise only remote command
+	 * timeouts are counted.
+	 *
+	 * @param maxTimeouts number of consecutive capture timeouts which stops capture from a session
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableCaptureCircuitBreaker(int maxTimeouts) {
+		CaptureBreaker breaker = new CaptureBreaker(maxTimeouts);
+		configure(c -> c.captureBreaker(breaker));
+		return this;
+	}
+
+	/**
+	 * Disable capture circuit breaker, artifacts will be requested on every failure.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableCaptureCircuitBreaker() {
+		configure(c -> c.captureBreaker(null));
+		return this;
+	}
+
+	/**
+	 * Enable flight recorder mode. In this mode a screenshot is taken before every given number of Selenide events and kept in memory,
+	 * so on a failure there are screenshots of the page state before the failed step and a few steps before it. Frames are attached
+	 * only on a failure, if a test passes they are dropped without sending anything. Frames are kept per test, the oldest ones are
+	 * dropped when the buffer reaches the frame number or the size limit.
+	 * <p>
+	 * Frames are encoded into low-resolution JPEG right when they are taken, see {@link #enableFlightRecorder(int, int, long,
+	 * ScreenshotEncoder)} to change that.
+	 *
+	 * @param frames   maximum number of frames kept for a test
+	 * @param interval take a frame before every given number of events, <code>1</code> means before every event
+	 * @param maxBytes maximum total size of frames kept for a test
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableFlightRecorder(int frames, int interval, long maxBytes) {
+		return enableFlightRecorder(frames, interval, maxBytes, FlightRecorder.DEFAULT_ENCODER);
+	}
+
+	/**
+	 * Enable flight recorder mode with the given frame encoder. Frames are encoded right when they are taken, so the encoder decides how
+	 * many frames fit into the size limit. JPEG frames are attached as is, PNG frames also go through the screenshot encoder.
+	 *
+	 * @param frames   maximum number of frames kept for a test
+	 * @param interval take a frame before every given number of events, <code>1</code> means before every event
+	 * @param maxBytes maximum total size of frames kept for a test
+	 * @param encoder  frame encoder, {@link ScreenshotEncoder#NONE} keeps frames as got from WebDriver
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableFlightRecorder(int frames, int interval, long maxBytes,
+			@Nonnull ScreenshotEncoder encoder) {
+		FlightRecorder recorder = new FlightRecorder(frames, interval, maxBytes, encoder);
+		configure(c -> c.flightRecorder(recorder));
+		return this;
+	}
+
+	/**
+	 * Disable flight recorder mode.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableFlightRecorder() {
+		configure(c -> c.flightRecorder(null));
+		return this;
+	}
+
+	/**
+	 * Register a WebDriver used by the current thread, besides the one bound by Selenide, E.G. a driver of
+	 * {@link com.codeborne.selenide.SelenideDriver} instance. On a failure artifacts are captured from all registered drivers of the thread
+	 * and the Selenide driver at the same time, each attachment is marked with its driver label. Registered drivers should accept
+	 * concurrent commands, E.G. {@link org.openqa.selenium.remote.RemoteWebDriver}.
+	 *
+	 * @param label  driver label, E.G. "admin browser", unique on the thread, "default browser" is the label of the Selenide driver
+	 * @param driver WebDriver instance
+	 * @return self instance for convenience
+	 * @throws IllegalArgumentException if the label is used by another driver of the thread or is "default browser"
+	 */
+	public ReportPortalSelenideEventListener trackDriver(@Nonnull String label, @Nonnull WebDriver driver) {
+		driverTracker.track(label, driver);
+		return this;
+	}
+
+	/**
+	 * Unregister a WebDriver used by the current thread.
+	 *
+	 * @param driver WebDriver instance
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener untrackDriver(@Nonnull WebDriver driver) {
+		driverTracker.untrack(driver);
+		return this;
+	}
+
+	/**
+	 * Get WebDriver listener, which registers drivers it is attached to with {@link #trackDriver(String, WebDriver)} on their first use
+	 * by a thread, and unregisters them on quit. Drivers are labelled as "browser 1", "browser 2" and so on.
+	 * <p>
+	 * Usage:
+	 * <pre>
+	 *     new SelenideDriver(config, Collections.emptyList(), Collections.singletonList(listener.driverListener()));
+	 * </pre>
+	 *
+	 * @return WebDriver listener
+	 */
+	@Nonnull
+	public WebDriverListener driverListener() {
+		return driverTracker;
+	}
+
+	/**
+	 * Enable asynchronous attachment sending. In this mode the listener gets screenshots, page sources and logs from WebDriver on a test
+	 * thread, but encodes and sends them to Report Portal on a separate bounded thread pool, so a failed step does not wait for it. If the
+	 * queue is full the attachment is processed on the test thread.
+	 *
+	 * @param threads   number of attachment processing threads
+	 * @param queueSize maximum number of attachments waiting for processing
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener enableAsyncAttachments(int threads, int queueSize) {
+		replaceAttachmentExecutor(new AttachmentExecutor(threads, queueSize));
+		return this;
+	}
+
+	/**
+	 * Disable asynchronous attachment sending. Attachments which are already submitted will be sent anyway.
+	 *
+	 * @return self instance for convenience
+	 */
+	public ReportPortalSelenideEventListener disableAsyncAttachments() {
+		replaceAttachmentExecutor(null);
+		return this;
+	}
+
+	/**
+	 * Wait for all asynchronous attachments to be passed to Report Portal client. Suitable to call at the end of a suite, before the launch
+	 * finish. Does nothing if asynchronous attachment sending is disabled.
+	 *
+	 * @param timeout maximum time to wait
+	 * @param unit    time unit of the timeout argument
+	 * @return <code>true</code> if all attachments were processed, <code>false</code> if the timeout elapsed or the thread was interrupted
+	 */
+	public boolean awaitAttachments(long timeout, @Nonnull TimeUnit unit) {
+		AttachmentExecutor executor = configuration.get().getAttachmentExecutor();
+		if (executor == null) {
+			return true;
+		}
+		try {
+			return executor.await(timeout, unit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Nonnull
+	private String stepName(@Nonnull LogEvent currentLog) {
+		return converter instanceof StepNameConverter ?
+				((StepNameConverter) converter).convert(currentLog) :
+				converter.apply(currentLog.toString());
+	}
+
+	private static boolean skip(@Nonnull ListenerConfiguration config, @Nonnull LogEvent currentLog) {
+		return !config.getEventFilter().accept(currentLog);
+	}
+
+	private void recordFrame(@Nonnull ListenerConfiguration config, @Nonnull FlightRecorder recorder, @Nonnull StepContext context,
+			@Nonnull String stepName) {
+		FlightRecorder.Frames frames = context.getFrames();
+		if (frames == null || !frames.isOf(recorder)) {
+			frames = recorder.newFrames();
+			context.setFrames(frames);
+		}
+		if (!frames.nextEvent() || !WebDriverRunner.hasWebDriverStarted()) {
+			return;
+		}
+		WebDriver driver = WebDriverRunner.getWebDriver();
+		CaptureBreaker breaker = config.getCaptureBreaker();
+		if (breaker != null && breaker.isOpen(driver)) {
+			return;
+		}
+		Callable<byte[]> capture = () -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+		long timeout = config.getParallelCaptureTimeout() > 0 ? config.getParallelCaptureTimeout() : config.getCaptureTimeout();
+		long start = System.nanoTime();
+		Future<byte[]> result = null;
+		byte[] screenshot = null;
+		try {
+			if (timeout > 0) {
+				result = submitCapture(capture);
+				screenshot = result.get(timeout, TimeUnit.NANOSECONDS);
+			} else {
+				screenshot = capture.call();
+			}
+			recordCapture(breaker, driver, false);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			ofNullable(result).ifPresent(r -> r.cancel(true));
+		} catch (Exception e) {
+			// A frame is optional, capture on failure will report the problem, but a hung session should still open the breaker
+			ofNullable(result).ifPresent(r -> r.cancel(true));
+			recordCapture(breaker, driver, CaptureBreaker.isTimeout(e));
+		} finally {
+			config.getMetrics().recordTime(ListenerMetrics.Phase.SCREENSHOT_CAPTURE, FRAME_METRICS_TAG, System.nanoTime() - start);
+		}
+		if (screenshot == null) {
+			return;
+		}
+		// Frames are downscaled right away, so the buffer holds many of them, while most of them are never attached
+		start = System.nanoTime();
+		try {
+			TypeAwareByteSource frame = recorder.getEncoder().encode(screenshot);
+			frames.add(stepName, frame.read(), frame.getMediaType());
+		} catch (IOException ignore) {
+			// A frame is optional
+		} finally {
+			config.getMetrics().recordTime(ListenerMetrics.Phase.ENCODING, FRAME_METRICS_TAG, System.nanoTime() - start);
+		}
+	}
+
+	@Nonnull
+	private static String fileExtension(@Nonnull String mediaType) {
+		return SCREENSHOT_TYPE.equals(mediaType) ? "png" : "jpg";
+	}
+
+	@Nonnull
+	private static List<Artifact> takeFrames(@Nonnull StepContext context) {
+		FlightRecorder.Frames frames = context.getFrames();
+		if (frames == null) {
+			return Collections.emptyList();
+		}
+		List<FlightRecorder.Frame> taken = frames.drain();
+		List<Artifact> result = new ArrayList<>(taken.size());
+		for (int i = 0; i < taken.size(); i++) {
+			FlightRecorder.Frame frame = taken.get(i);
+			result.add(Artifact.binary(
+					ArtifactType.SCREENSHOT,
+					String.format(FRAME_MESSAGE_PATTERN, frame.getStepName()),
+					String.format(FRAME_FILE_NAME_PATTERN, i + 1, fileExtension(frame.getMediaType())),
+					frame.getMediaType(),
+					frame.getScreenshot()
+			));
+		}
+		return result;
 	}
 
 	@Override
 	public void beforeEvent(@Nonnull LogEvent currentLog) {
-		if (skip(currentLog)) {
+		ListenerConfiguration config = configuration.get();
+		if (skip(config, currentLog)) {
+			config.getMetrics().recordSkippedEvent(currentLog);
 			return;
 		}
-		ofNullable(Launch.currentLaunch()).ifPresent(l -> l.getStepReporter()
-				.sendStep(ItemStatus.INFO, converter.apply(currentLog.toString())));
+		StepContext context = StepContext.current(stepContext);
+		if (context == null) {
+			return;
+		}
+		StepReporter reporter = context.getReporter();
+		String stepName = stepName(currentLog);
+		FlightRecorder recorder = config.getFlightRecorder();
+		if (recorder != null) {
+			recordFrame(config, recorder, context, stepName);
+		}
+		int batchSize = config.getStepBatchSize();
+		if (batchSize > 0) {
+			StepBatch batch = context.getBatch();
+			if (batch != null && batch.accepts(batchSize)) {
+				batch.add(stepName);
+				return;
+			}
+			if (batch != null) {
+				reporter.finishPreviousStep();
+			}
+			context.setBatch(new StepBatch());
+		}
+		long start = System.nanoTime();
+		context.setStep(reporter.sendStep(ItemStatus.INFO, stepName));
+		config.getMetrics().recordTime(ListenerMetrics.Phase.STEP_START, null, System.nanoTime() - start);
 	}
 
-	private void attachBinary(@Nonnull String message, @Nonnull byte[] attachment, @Nonnull String type) {
-		ReportPortal.emitLog(new ReportPortalMessage(ByteSource.wrap(attachment), type, message), logLevel, Instant.now());
+	/**
+	 * Finish the event which was added to a batch step. Passed events are logged into the batch step, others get their own step, which
+	 * is finished by the caller.
+	 *
+	 * @return <code>true</code> if the event belongs to a batch step and passed, so the step stays open
+	 */
+	private boolean finishBatchedEvent(@Nonnull ListenerConfiguration config, @Nonnull StepContext context,
+			@Nonnull LogEvent currentLog) {
+		StepBatch batch = config.getStepBatchSize() > 0 ? context.getBatch() : null;
+		if (batch == null) {
+			return false;
+		}
+		boolean passed = LogEvent.EventStatus.PASS.equals(currentLog.getStatus());
+		String pending = batch.takePending();
+		if (passed) {
+			if (pending != null) {
+				ReportPortal.emitLog(pending, LogLevel.INFO.name(), Instant.now());
+			}
+			return true;
+		}
+		context.setBatch(null);
+		if (pending != null) {
+			context.getReporter().finishPreviousStep();
+			context.setStep(context.getReporter().sendStep(ItemStatus.INFO, pending));
+		}
+		return false;
+	}
+
+	@Nonnull
+	private static ReportPortalMessage encodeAttachment(@Nonnull String message, @Nonnull Callable<TypeAwareByteSource> attachment) {
+		try {
+			return new ReportPortalMessage(attachment.call(), message);
+		} catch (Exception e) {
+			return new ReportPortalMessage("Unable to encode attachment '" + message + "': " + e.getMessage());
+		}
+	}
+
+	@Nonnull
+	private static Callable<TypeAwareByteSource> measure(@Nonnull ListenerMetrics metrics, @Nullable ArtifactType type,
+			@Nonnull Callable<TypeAwareByteSource> attachment) {
+		String tag = type == null ? ListenerMetrics.BUNDLE_TAG : type.name();
+		return () -> {
+			long start = System.nanoTime();
+			TypeAwareByteSource result = attachment.call();
+			metrics.recordTime(ListenerMetrics.Phase.ENCODING, tag, System.nanoTime() - start);
+			if (result instanceof ArtifactByteSource) {
+				metrics.recordAttachment(type, ((ArtifactByteSource) result).size());
+			}
+			return result;
+		};
+	}
+
+	private void attachBinary(@Nonnull ListenerConfiguration config, @Nonnull StepContext context, @Nullable ArtifactType type,
+			@Nonnull String message, @Nonnull Callable<TypeAwareByteSource> attachment) {
+		AttachmentExecutor executor = config.getAttachmentExecutor();
+		ListenerMetrics metrics = config.getMetrics();
+		String tag = type == null ? ListenerMetrics.BUNDLE_TAG : type.name();
+		AttachmentSpool spool = config.getSpool();
+		Callable<TypeAwareByteSource> measured = measure(metrics, type, attachment);
+		Callable<TypeAwareByteSource> encoded = spool == null ? measured : () -> spool.spool(measured.call());
+		// Without a started step there is nothing to bind the attachment to, so it is sent from the test thread as usual
+		Maybe<String> step = context.getStep();
+		if (executor == null || step == null) {
+			ReportPortalMessage rpMessage = encodeAttachment(message, encoded);
+			long start = System.nanoTime();
+			ReportPortal.emitLog(rpMessage, rpMessage.getData() == null ? LogLevel.ERROR.name() : logLevel, Instant.now());
+			metrics.recordTime(ListenerMetrics.Phase.LOG_EMIT, tag, System.nanoTime() - start);
+			return;
+		}
+		// Bind the attachment to the launch, the failed step and the time before leaving the test thread, pool threads are shared between
+		// launches, so the launch they inherited may be a different one
+		Launch launch = context.getLaunch();
+		Instant time = Instant.now();
+		executor.execute(() -> {
+			ReportPortalMessage rpMessage = encodeAttachment(message, encoded);
+			String level = rpMessage.getData() == null ? LogLevel.ERROR.name() : logLevel;
+			long start = System.nanoTime();
+			launch.log(step, itemUuid -> ReportPortal.toSaveLogRQ(null, itemUuid, level, time, rpMessage));
+			metrics.recordTime(ListenerMetrics.Phase.LOG_EMIT, tag, System.nanoTime() - start);
+		});
+	}
+
+	@Nonnull
+	private static TypeAwareByteSource encode(@Nonnull Artifact artifact, @Nonnull ScreenshotEncoder encoder, @Nullable Long threshold)
+			throws IOException {
+		// Flight recorder frames which were encoded into another format when taken are attached as is
+		if (artifact.getType() == ArtifactType.SCREENSHOT && artifact.getBinary() != null && SCREENSHOT_TYPE.equals(artifact.getMediaType())) {
+			return encoder.encode(artifact.getBinary());
+		}
+		if (threshold != null && artifact.size() >= threshold) {
+			return Compression.gzip(artifact);
+		}
+		return ArtifactByteSource.of(artifact);
+	}
+
+	@Nullable
+	private static String hash(@Nonnull Artifact artifact) {
+		try {
+			return ArtifactDeduplicator.hash(artifact);
+		} catch (IOException e) {
+			return null;
+		}
 	}
 
-	private void logScreenshot() {
-		if (WebDriverRunner.hasWebDriverStarted()) {
-			byte[] screenshot;
+	@Nonnull
+	private static Artifact diffPageSource(int interval, @Nonnull StepContext context, @Nonnull Artifact artifact) {
+		String current = artifact.getText();
+		if (current == null) {
+			return artifact;
+		}
+		String fileName = artifact.getFileName();
+		String previous = context.getPageSource(fileName);
+		int diffs = context.getPageSourceDiffs(fileName);
+		if (previous == null || diffs + 1 >= interval) {
+			context.setPageSource(fileName, current, 0);
+			return artifact;
+		}
+		Artifact diff = Artifact.text(
+				ArtifactType.PAGE_SOURCE,
+				String.format(PAGE_SOURCE_DIFF_MESSAGE_PATTERN, artifact.getMessage()),
+				fileName.replaceFirst("\\.html$", "") + PAGE_SOURCE_DIFF_FILE_EXTENSION,
+				PAGE_SOURCE_DIFF_TYPE,
+				PageSourceDiff.diff(fileName, previous, current),
+				PAGE_SOURCE_DIFF_SEPARATOR
+		);
+		if (diff.size() >= artifact.size()) {
+			context.setPageSource(fileName, current, 0);
+			return artifact;
+		}
+		context.setPageSource(fileName, current, diffs + 1);
+		return diff;
+	}
+
+	private void attachArtifacts(@Nonnull ListenerConfiguration config, @Nonnull StepContext context, @Nullable String stepName,
+			@Nonnull List<Artifact> artifacts) {
+		AttachmentPolicy policy = config.getAttachmentPolicy();
+		ScreenshotEncoder encoder = config.getScreenshotEncoder();
+		Map<ArtifactType, Long> thresholds = config.getCompressionThresholds();
+		ArtifactDeduplicator dedup = config.getDeduplicator();
+		int diffInterval = config.getPageSourceDiffInterval();
+		List<Artifact> bundle = new ArrayList<>();
+		for (Artifact captured : artifacts) {
+			Long limit = config.getSizeLimits().get(captured.getType());
+			Artifact limited = limit == null ? captured : captured.truncate(limit);
+			String hash = dedup == null || stepName == null ? null : hash(limited);
+			String original = hash == null ? null : dedup.findDuplicate(hash);
+			if (original == null && !policy.attachArtifact(limited.getType(), limited.size())) {
+				continue;
+			}
+			// Remember only attached artifacts, so a duplicate never refers to an artifact which was rejected
+			if (hash != null && original == null) {
+				dedup.remember(hash, stepName);
+			}
+			// Diff only attached page sources, so the next diff can always be applied to what is in Report Portal
+			Artifact artifact = original == null && diffInterval > 0 && limited.getType() == ArtifactType.PAGE_SOURCE ?
+					diffPageSource(diffInterval, context, limited) :
+					limited;
+			if (original != null) {
+				String message = String.format(DUPLICATE_ARTIFACT_MESSAGE_PATTERN, artifact.getMessage(), original);
+				ReportPortal.emitLog(message, logLevel, Instant.now());
+			} else if (config.isBundleArtifacts() && artifact.isText()) {
+				bundle.add(artifact);
+			} else {
+				attachBinary(
+						config,
+						context,
+						artifact.getType(),
+						artifact.getMessage(),
+						() -> encode(artifact, encoder, thresholds.get(artifact.getType()))
+				);
+			}
+		}
+		if (!bundle.isEmpty()) {
+			attachBinary(config, context, null, ARTIFACT_BUNDLE_MESSAGE, () -> Compression.zip(bundle));
+		}
+	}
+
+	private void logCaptureError(@Nonnull String artifact, @Nullable String error) {
+		ReportPortal.emitLog("Unable to get WebDriver " + artifact + ": " + error, LogLevel.ERROR.name(), Instant.now());
+	}
+
+	@Nonnull
+	private static Capture measure(@Nonnull ListenerMetrics metrics, @Nonnull ListenerMetrics.Phase phase, @Nullable String tag,
+			@Nonnull Capture capture) {
+		return () -> {
+			long start = System.nanoTime();
 			try {
-				if ((screenshot = ((TakesScreenshot) WebDriverRunner.getWebDriver()).getScreenshotAs(OutputType.BYTES)) != null) {
-					attachBinary(SCREENSHOT_MESSAGE, screenshot, SELENIUM_SCREENSHOT_TYPE);
-				}
-			} catch (Exception e) {
-				ReportPortal.emitLog("Unable to get WebDriver screenshot: " + e.getMessage(), LogLevel.ERROR.name(), Instant.now());
+				return capture.fetch();
+			} finally {
+				metrics.recordTime(phase, tag, System.nanoTime() - start);
+			}
+		};
+	}
+
+	@Nonnull
+	private static Capture screenshotCapture(@Nonnull WebDriver driver, @Nonnull ScreenshotStrategy strategy, @Nonnull LogEvent event) {
+		return () -> {
+			byte[] screenshot = strategy.capture(driver, event);
+			return screenshot == null ?
+					null :
+					Artifact.binary(ArtifactType.SCREENSHOT, SCREENSHOT_MESSAGE, SCREENSHOT_FILE_NAME, SCREENSHOT_TYPE, screenshot);
+		};
+	}
+
+	@Nonnull
+	private static Capture pageSourceCapture(@Nonnull WebDriver driver) {
+		return () -> {
+			String pageSource = driver.getPageSource();
+			return pageSource == null ?
+					null :
+					Artifact.text(
+							ArtifactType.PAGE_SOURCE,
+							PAGE_SOURCE_MESSAGE,
+							PAGE_SOURCE_FILE_NAME,
+							SELENIUM_PAGE_SOURCE_TYPE,
+							Collections.singletonList(pageSource),
+							""
+					);
+		};
+	}
+
+	@Nonnull
+	private static Capture seleniumLogCapture(@Nullable WebDriver driver, @Nullable LogRing ring, @Nonnull String logType,
+			@Nonnull Level level) {
+		return () -> {
+			List<String> logs;
+			if (driver == null) {
+				logs = Selenide.getWebDriverLogs(logType, level);
+			} else if (ring != null) {
+				logs = ring.drain(driver, level);
+			} else {
+				logs = getBrowserLogs(driver, logType, level);
 			}
+			return Artifact.text(
+					ArtifactType.SELENIUM_LOG,
+					String.format(SELENIUM_LOG_MESSAGE_PATTERN, logType),
+					String.format(SELENIUM_LOG_FILE_NAME_PATTERN, logType),
+					SELENIUM_LOG_TYPE,
+					logs,
+					SELENIUM_LOG_SEPARATOR
+			);
+		};
+	}
+
+	@Nonnull
+	private static List<String> getBrowserLogs(@Nonnull WebDriver driver, @Nonnull String logType, @Nonnull Level level) {
+		return driver.manage()
+				.logs()
+				.get(logType)
+				.getAll()
+				.stream()
+				.filter(e -> e.getLevel().intValue() >= level.intValue())
+				.map(String::valueOf)
+				.collect(Collectors.toList());
+	}
+
+	private static void recordCapture(@Nullable CaptureBreaker breaker, @Nonnull WebDriver driver, boolean timedOut) {
+		if (breaker != null) {
+			breaker.record(driver, timedOut);
+		}
+	}
+
+	private void collect(@Nonnull String artifact, @Nonnull Future<Artifact> result, long deadline, long timeoutNanos,
+			@Nonnull WebDriver driver, @Nullable CaptureBreaker breaker, @Nonnull List<Artifact> artifacts) {
+		try {
+			ofNullable(result.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)).ifPresent(artifacts::add);
+			recordCapture(breaker, driver, false);
+		} catch (TimeoutException e) {
+			result.cancel(true);
+			recordCapture(breaker, driver, true);
+			logCaptureError(artifact, "timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+		} catch (ExecutionException e) {
+			recordCapture(breaker, driver, CaptureBreaker.isTimeout(e.getCause()));
+			logCaptureError(artifact, e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.cancel(true);
+			logCaptureError(artifact, "capture was interrupted");
 		}
 	}
 
-	private void logPageSource() {
-		if (WebDriverRunner.hasWebDriverStarted()) {
-			String pageSource;
+	@Nonnull
+	private List<Artifact> captureSequentially(@Nonnull Map<String, Capture> captures, @Nonnull Map<String, WebDriver> owners,
+			@Nullable CaptureBreaker breaker, long timeoutNanos) {
+		List<Artifact> artifacts = new ArrayList<>();
+		captures.forEach((artifact, capture) -> {
+			WebDriver driver = owners.get(artifact);
+			// The session may stop responding in the middle of a failure, the timeouts are already logged then
+			if (breaker != null && breaker.isOpen(driver)) {
+				return;
+			}
+			if (timeoutNanos > 0) {
+				Future<Artifact> result = submitCapture(capture::fetch);
+				collect(artifact, result, System.nanoTime() + timeoutNanos, timeoutNanos, driver, breaker, artifacts);
+				return;
+			}
 			try {
-				if ((pageSource = WebDriverRunner.getWebDriver().getPageSource()) != null) {
-					attachBinary(PAGE_SOURCE_MESSAGE, pageSource.getBytes(StandardCharsets.UTF_8), SELENIUM_PAGE_SOURCE_TYPE);
-				}
+				ofNullable(capture.fetch()).ifPresent(artifacts::add);
+				recordCapture(breaker, driver, false);
 			} catch (Exception e) {
-				ReportPortal.emitLog("Unable to get WebDriver page source: " + e.getMessage(), LogLevel.ERROR.name(), Instant.now());
+				recordCapture(breaker, driver, CaptureBreaker.isTimeout(e));
+				logCaptureError(artifact, e.getMessage());
+			}
+		});
+		return artifacts;
+	}
+
+	@Nonnull
+	private ExecutorService getCaptureExecutor() {
+		ExecutorService executor = captureExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				if ((executor = captureExecutor) == null) {
+					ThreadPoolExecutor pool = new ThreadPoolExecutor(
+							CAPTURE_THREADS,
+							CAPTURE_THREADS,
+							60L,
+							TimeUnit.SECONDS,
+							new LinkedBlockingQueue<>(),
+							new DaemonThreadFactory(CAPTURE_THREAD_NAME_PREFIX)
+					);
+					pool.allowCoreThreadTimeOut(true);
+					executor = pool;
+					captureExecutor = executor;
+				}
 			}
 		}
+		return executor;
+	}
+
+	@Nonnull
+	private <T> Future<T> submitCapture(@Nonnull Callable<T> capture) {
+		try {
+			return getCaptureExecutor().submit(capture);
+		} catch (RejectedExecutionException e) {
+			// The pool was shut down after the thread got it
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	@Nonnull
+	private List<Artifact> captureInParallel(@Nonnull Map<String, Capture> captures, @Nonnull Map<String, WebDriver> owners,
+			@Nullable CaptureBreaker breaker, long timeoutNanos) {
+		Map<String, Future<Artifact>> results = new LinkedHashMap<>();
+		captures.forEach((artifact, capture) -> results.put(artifact, submitCapture(capture::fetch)));
+		long deadline = System.nanoTime() + timeoutNanos;
+		// Collect in the original order whatever is ready before the deadline
+		List<Artifact> artifacts = new ArrayList<>();
+		results.forEach((artifact, result) -> collect(
+				artifact,
+				result,
+				deadline,
+				timeoutNanos,
+				owners.get(artifact),
+				breaker,
+				artifacts
+		));
+		return artifacts;
 	}
 
-	private static String getBrowserLogs(@Nonnull String logType, @Nonnull Level level) {
-		return String.join("\n\n", Selenide.getWebDriverLogs(logType, level));
+	@Nonnull
+	private static Capture labelled(@Nonnull Capture capture, @Nullable String label) {
+		if (label == null) {
+			return capture;
+		}
+		return () -> {
+			Artifact artifact = capture.fetch();
+			return artifact == null ? null : artifact.withLabel(label);
+		};
+	}
+
+	private static void addCaptures(@Nonnull Map<String, Capture> captures, @Nonnull ListenerConfiguration config,
+			@Nonnull LogEvent currentLog, @Nonnull WebDriver driver, boolean current, @Nullable String label, boolean parallel) {
+		ListenerMetrics metrics = config.getMetrics();
+		String prefix = label == null ? "" : label + " ";
+		if (config.isScreenshots()) {
+			captures.put(prefix + SCREENSHOT_ARTIFACT, labelled(measure(
+					metrics,
+					ListenerMetrics.Phase.SCREENSHOT_CAPTURE,
+					null,
+					screenshotCapture(driver, config.getScreenshotStrategy(), currentLog)
+			), label));
+		}
+		if (config.isPageSources()) {
+			captures.put(
+					prefix + PAGE_SOURCE_ARTIFACT,
+					labelled(measure(metrics, ListenerMetrics.Phase.PAGE_SOURCE_CAPTURE, null, pageSourceCapture(driver)), label)
+			);
+		}
+		// Selenide gets logs of a driver bound to the current thread, so use it only if we stay on the thread. Log buffers are kept for
+		// that driver only.
+		WebDriverLogCollector collector = current ? config.getLogCollector() : null;
+		WebDriver logDriver = !current || parallel || collector != null ? driver : null;
+		config.getSeleniumLogTypes().forEach((k, v) -> captures.put(
+				prefix + String.format(SELENIUM_LOG_ARTIFACT_PATTERN, k),
+				labelled(measure(
+						metrics,
+						ListenerMetrics.Phase.SELENIUM_LOG_CAPTURE,
+						k,
+						seleniumLogCapture(logDriver, collector == null ? null : collector.ring(driver, k), k, v)
+				), label)
+		));
+	}
+
+	private void logArtifacts(@Nonnull ListenerConfiguration config, @Nonnull StepContext context, @Nonnull LogEvent currentLog) {
+		WebDriver currentDriver = WebDriverRunner.hasWebDriverStarted() ? WebDriverRunner.getWebDriver() : null;
+		Map<String, WebDriver> drivers = driverTracker.drivers(currentDriver);
+		if (drivers.isEmpty()) {
+			return;
+		}
+		// Several drivers are always captured at the same time, so a failure takes as long as the slowest driver
+		boolean multiDriver = drivers.size() > 1;
+		long timeout = config.getParallelCaptureTimeout();
+		long captureTimeout = config.getCaptureTimeout();
+		boolean parallel = timeout > 0 || multiDriver;
+		CaptureBreaker breaker = config.getCaptureBreaker();
+		Map<String, Capture> captures = new LinkedHashMap<>();
+		Map<String, WebDriver> owners = new HashMap<>();
+		drivers.forEach((label, driver) -> {
+			if (breaker != null && breaker.isOpen(driver)) {
+				String artifact = multiDriver ? label + " " + SESSION_ARTIFACTS : SESSION_ARTIFACTS;
+				logCaptureError(artifact, String.format(CAPTURE_STOPPED_MESSAGE_PATTERN, breaker.getMaxTimeouts()));
+				return;
+			}
+			Map<String, Capture> driverCaptures = new LinkedHashMap<>();
+			addCaptures(
+					driverCaptures,
+					config,
+					currentLog,
+					driver,
+					driver == currentDriver,
+					multiDriver ? label : null,
+					parallel || captureTimeout > 0
+			);
+			driverCaptures.keySet().forEach(artifact -> owners.put(artifact, driver));
+			captures.putAll(driverCaptures);
+		});
+		FlightRecorder.Frames frames = context.getFrames();
+		if (captures.isEmpty() && (frames == null || frames.isEmpty())) {
+			return;
+		}
+		AttachmentPolicy policy = config.getAttachmentPolicy();
+		String stepName = policy == AttachmentPolicies.always() && config.getDeduplicator() == null ?
+				null :
+				stepName(currentLog);
+		if (stepName != null && !policy.captureFailure(currentLog, stepName)) {
+			return;
+		}
+		long parallelTimeout = timeout > 0 ? timeout : captureTimeout > 0 ? captureTimeout : Long.MAX_VALUE;
+		// Frames are taken only for a failure which gets artifacts, otherwise they are kept for the next one
+		List<Artifact> artifacts = new ArrayList<>(takeFrames(context));
+		artifacts.addAll(parallel ?
+				captureInParallel(captures, owners, breaker, parallelTimeout) :
+				captureSequentially(captures, owners, breaker, captureTimeout));
+		attachArtifacts(config, context, stepName, artifacts);
+	}
+
+	private static void collectLogs(@Nonnull ListenerConfiguration config) {
+		WebDriverLogCollector collector = config.getLogCollector();
+		if (collector == null || config.getSeleniumLogTypes().isEmpty() || !WebDriverRunner.hasWebDriverStarted()) {
+			return;
+		}
+		collector.poll(WebDriverRunner.getWebDriver(), config.getSeleniumLogTypes());
 	}
 
 	@Override
 	public void afterEvent(@Nonnull LogEvent currentLog) {
-		if (skip(currentLog)) {
+		ListenerConfiguration config = configuration.get();
+		if (skip(config, currentLog)) {
 			return;
 		}
-		if (LogEvent.EventStatus.FAIL.equals(currentLog.getStatus())) {
-			if (screenshots) {
-				logScreenshot();
-			}
-			if (pageSources) {
-				logPageSource();
-			}
-			seleniumLogTypes.forEach((k, v) -> {
-				String logs = getBrowserLogs(k, v);
-				attachBinary(String.format(SELENIUM_LOG_MESSAGE_PATTERN, k), logs.getBytes(StandardCharsets.UTF_8), SELENIUM_LOG_TYPE);
-			});
-			ofNullable(Launch.currentLaunch()).ifPresent(l -> l.getStepReporter().finishPreviousStep(ItemStatus.FAILED));
-		} else if (LogEvent.EventStatus.PASS.equals(currentLog.getStatus())) {
-			ofNullable(Launch.currentLaunch()).ifPresent(l -> l.getStepReporter().finishPreviousStep());
+		StepContext context = StepContext.current(stepContext);
+		if (context == null) {
+			return;
+		}
+		LogEvent.EventStatus status = currentLog.getStatus();
+		if (LogEvent.EventStatus.PASS.equals(status)) {
+			collectLogs(config);
+		}
+		if (finishBatchedEvent(config, context, currentLog)) {
+			return;
+		}
+		if (LogEvent.EventStatus.FAIL.equals(status)) {
+			logArtifacts(config, context, currentLog);
+			context.getReporter().finishPreviousStep(ItemStatus.FAILED);
+		} else if (LogEvent.EventStatus.PASS.equals(status)) {
+			context.getReporter().finishPreviousStep();
 		} else {
-			ReportPortal.emitLog(
-					"Unable to process selenide event status, skipping it: " + currentLog.getStatus(),
-					LogLevel.WARN.name(),
-					Instant.now()
-			);
-			ofNullable(Launch.currentLaunch()).ifPresent(l -> l.getStepReporter().finishPreviousStep(ItemStatus.WARN));
+			ReportPortal.emitLog("Unable to process selenide event status, skipping it: " + status, LogLevel.WARN.name(), Instant.now());
+			context.getReporter().finishPreviousStep(ItemStatus.WARN);
 		}
 	}
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import jakarta.annotation.Nonnull;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Screenshot encoding stage, which is applied to every screenshot before upload. It can downscale screenshots to the given dimensions,
+ * re-encode them into JPEG with the given quality or into palette-reduced PNG, and fit them into the given byte budget.
+ * <p>
+ * Usage:
+ * <pre>
+ *     new ReportPortalSelenideEventListener().screenshotEncoder(ScreenshotEncoder.jpeg(0.7f).maxSize(1280, 1024).maxBytes(300 * 1024));
+ * </pre>
+ */
+public class ScreenshotEncoder {
+
+	/**
+	 * Pass-through encoder, which keeps screenshots untouched.
+	 */
+	public static final ScreenshotEncoder NONE = new ScreenshotEncoder(Format.PNG, 1.0f, 0, 0, 0);
+
+	private static final String PNG_TYPE = "image/png";
+	private static final String JPEG_TYPE = "image/jpeg";
+	private static final float MIN_QUALITY = 0.1f;
+	private static final float QUALITY_STEP = 0.75f;
+	private static final double SCALE_STEP = 0.75d;
+	private static final int MIN_DIMENSION = 64;
+
+	private enum Format {
+		PNG("png", PNG_TYPE),
+		INDEXED_PNG("png", PNG_TYPE),
+		JPEG("jpeg", JPEG_TYPE);
+
+		private final String imageIoName;
+		private final String mediaType;
+
+		Format(String imageIoName, String mediaType) {
+			this.imageIoName = imageIoName;
+			this.mediaType = mediaType;
+		}
+	}
+
+	private final Format format;
+	private final float quality;
+	private final int maxWidth;
+	private final int maxHeight;
+	private final int maxBytes;
+
+	private ScreenshotEncoder(@Nonnull Format format, float quality, int maxWidth, int maxHeight, int maxBytes) {
+		this.format = format;
+		this.quality = quality;
+		this.maxWidth = maxWidth;
+		this.maxHeight = maxHeight;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Lossless PNG encoder. Makes sense together with {@link #maxSize(int, int)} or {@link #maxBytes(int)}.
+	 *
+	 * @return encoder instance
+	 */
+	@Nonnull
+	public static ScreenshotEncoder png() {
+		return new ScreenshotEncoder(Format.PNG, 1.0f, 0, 0, 0);
+	}
+
+	/**
+	 * PNG encoder which reduces screenshot colors to a 256-color palette.
+	 *
+	 * @return encoder instance
+	 */
+	@Nonnull
+	public static ScreenshotEncoder indexedPng() {
+		return new ScreenshotEncoder(Format.INDEXED_PNG, 1.0f, 0, 0, 0);
+	}
+
+	/**
+	 * Lossy JPEG encoder.
+	 *
+	 * @param quality compression quality, from <code>0.0</code> (the smallest size) to <code>1.0</code> (the best quality)
+	 * @return encoder instance
+	 */
+	@Nonnull
+	public static ScreenshotEncoder jpeg(float quality) {
+		if (quality <= 0.0f || quality > 1.0f) {
+			throw new IllegalArgumentException("JPEG quality should be in (0.0, 1.0] range: " + quality);
+		}
+		return new ScreenshotEncoder(Format.JPEG, quality, 0, 0, 0);
+	}
+
+	/**
+	 * Set maximum screenshot dimensions, larger screenshots are downscaled with their aspect ratio preserved.
+	 *
+	 * @param width  maximum width in pixels
+	 * @param height maximum height in pixels
+	 * @return new encoder instance
+	 */
+	@Nonnull
+	public ScreenshotEncoder maxSize(int width, int height) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("Screenshot dimensions should be positive: " + width + "x" + height);
+		}
+		return new ScreenshotEncoder(format, quality, width, height, maxBytes);
+	}
+
+	/**
+	 * Set screenshot byte budget. If an encoded screenshot is larger the encoder lowers its quality (for JPEG) and then its dimensions
+	 * until it fits.
+	 *
+	 * @param bytes maximum screenshot size in bytes
+	 * @return new encoder instance
+	 */
+	@Nonnull
+	public ScreenshotEncoder maxBytes(int bytes) {
+		if (bytes < 1) {
+			throw new IllegalArgumentException("Screenshot byte budget should be positive: " + bytes);
+		}
+		return new ScreenshotEncoder(format, quality, maxWidth, maxHeight, bytes);
+	}
+
+	/**
+	 * Encode a screenshot got from WebDriver.
+	 *
+	 * @param screenshot PNG screenshot bytes
+	 * @return encoded screenshot with corresponding media type
+	 * @throws IOException if the screenshot can't be decoded or encoded
+	 */
+	@Nonnull
+	public TypeAwareByteSource encode(@Nonnull byte[] screenshot) throws IOException {
+		if (format == Format.PNG && maxWidth <= 0 && maxBytes <= 0) {
+			return ArtifactByteSource.of(screenshot, PNG_TYPE);
+		}
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshot));
+		if (image == null) {
+			throw new IOException("Unable to decode screenshot image");
+		}
+		if (maxWidth > 0 && (image.getWidth() > maxWidth || image.getHeight() > maxHeight)) {
+			image = scale(image, Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight()));
+		}
+		float currentQuality = quality;
+		byte[] result = write(image, currentQuality);
+		while (maxBytes > 0 && result.length > maxBytes) {
+			if (format == Format.JPEG && currentQuality > MIN_QUALITY) {
+				currentQuality = Math.max(MIN_QUALITY, currentQuality * QUALITY_STEP);
+			} else if (Math.min(image.getWidth(), image.getHeight()) * SCALE_STEP >= MIN_DIMENSION) {
+				image = scale(image, SCALE_STEP);
+			} else {
+				break;
+			}
+			result = write(image, currentQuality);
+		}
+		return ArtifactByteSource.of(result, format.mediaType);
+	}
+
+	@Nonnull
+	private static BufferedImage scale(@Nonnull BufferedImage image, double ratio) {
+		int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+		int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+		BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = result.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+		} finally {
+			graphics.dispose();
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static BufferedImage convert(@Nonnull BufferedImage image, int type) {
+		if (image.getType() == type) {
+			return image;
+		}
+		BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		Graphics2D graphics = result.createGraphics();
+		try {
+			graphics.drawImage(image, 0, 0, Color.WHITE, null);
+		} finally {
+			graphics.dispose();
+		}
+		return result;
+	}
+
+	@Nonnull
+	private byte[] write(@Nonnull BufferedImage image, float currentQuality) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		switch (format) {
+			case JPEG:
+				writeJpeg(convert(image, BufferedImage.TYPE_INT_RGB), currentQuality, output);
+				break;
+			case INDEXED_PNG:
+				ImageIO.write(convert(image, BufferedImage.TYPE_BYTE_INDEXED), format.imageIoName, output);
+				break;
+			default:
+				ImageIO.write(image, format.imageIoName, output);
+		}
+		return output.toByteArray();
+	}
+
+	private static void writeJpeg(@Nonnull BufferedImage image, float currentQuality, @Nonnull ByteArrayOutputStream output)
+			throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(Format.JPEG.imageIoName);
+		if (!writers.hasNext()) {
+			throw new IOException("No JPEG image writer available");
+		}
+		ImageWriter writer = writers.next();
+		try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+			writer.setOutput(stream);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(currentQuality);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+}
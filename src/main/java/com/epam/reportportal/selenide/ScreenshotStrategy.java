@@ -0,0 +1,250 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.openqa.selenium.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Screenshot strategy, which defines what is captured on failure: the whole browser viewport or only the element the failed event
+ * refers to. Element screenshots are a fraction of the viewport pixels, so they are faster to encode, transfer and store.
+ * <p>
+ * Usage:
+ * <pre>
+ *     new ReportPortalSelenideEventListener().screenshotStrategy(ScreenshotStrategy.element().withMargin(50).orPage());
+ * </pre>
+ */
+public class ScreenshotStrategy {
+
+	/**
+	 * Default strategy, which captures the whole browser viewport.
+	 */
+	public static final ScreenshotStrategy PAGE = new ScreenshotStrategy(false, 0, true);
+
+	private static final Pattern INDEX_PATTERN = Pattern.compile("^(.+)\\[(\\d+)]$");
+	private static final Map<String, Function<String, By>> LOCATORS = new LinkedHashMap<>();
+
+	static {
+		LOCATORS.put("By.xpath: ", By::xpath);
+		LOCATORS.put("By.id: ", By::id);
+		LOCATORS.put("By.name: ", By::name);
+		LOCATORS.put("By.className: ", By::className);
+		LOCATORS.put("By.tagName: ", By::tagName);
+		LOCATORS.put("By.linkText: ", By::linkText);
+		LOCATORS.put("By.partialLinkText: ", By::partialLinkText);
+	}
+
+	private static final String ELEMENT_RECTANGLE_SCRIPT = "var r = arguments[0].getBoundingClientRect();"
+			+ "return [r.left, r.top, r.width, r.height, window.devicePixelRatio || 1];";
+
+	private final boolean element;
+	private final int margin;
+	private final boolean pageFallback;
+
+	private ScreenshotStrategy(boolean element, int margin, boolean pageFallback) {
+		this.element = element;
+		this.margin = margin;
+		this.pageFallback = pageFallback;
+	}
+
+	/**
+	 * Element strategy, which captures only the element of the failed event. If the element can't be found, E.G. the event is not about
+	 * an element or the element is not on the page, no screenshot is attached, use {@link #orPage()} to capture the viewport instead.
+	 * The element is captured by WebDriver, which scrolls it into view.
+	 *
+	 * @return strategy instance
+	 */
+	@Nonnull
+	public static ScreenshotStrategy element() {
+		return new ScreenshotStrategy(true, 0, false);
+	}
+
+	/**
+	 * Capture the element together with a margin around it, that gives some context of the element. The margin is cut from the viewport
+	 * screenshot, so the browser should support JavaScript. The page is not scrolled: if the element is partly out of the viewport, only
+	 * its visible part is captured, and if it is out of the viewport completely, the whole viewport is.
+	 *
+	 * @param pixels margin size in CSS pixels
+	 * @return new strategy instance
+	 */
+	@Nonnull
+	public ScreenshotStrategy withMargin(int pixels) {
+		if (pixels < 0) {
+			throw new IllegalArgumentException("Screenshot margin should not be negative: " + pixels);
+		}
+		return new ScreenshotStrategy(element, pixels, pageFallback);
+	}
+
+	/**
+	 * Capture the whole viewport if the element can't be found or captured.
+	 *
+	 * @return new strategy instance
+	 */
+	@Nonnull
+	public ScreenshotStrategy orPage() {
+		return new ScreenshotStrategy(element, margin, true);
+	}
+
+	/**
+	 * Check if a description is a chain of searches. Selenide joins their descriptions with a slash, which can't be a part of a CSS
+	 * selector anywhere except strings, attribute selectors and pseudo-class arguments, like <code>a[href='/login']</code>.
+	 *
+	 * @param selector element description
+	 * @return <code>true</code> if the description has a slash outside strings and brackets
+	 */
+	private static boolean isChained(@Nonnull String selector) {
+		int depth = 0;
+		char quote = 0;
+		for (int i = 0; i < selector.length(); i++) {
+			char c = selector.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '[' || c == '(') {
+				depth++;
+			} else if ((c == ']' || c == ')') && depth > 0) {
+				depth--;
+			} else if (c == '/' && depth == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Convert an element description of a Selenide event into a locator. Selenide describes CSS selectors as is, other locators with their
+	 * type prefix, and adds an index for collection elements.
+	 *
+	 * @param description element description
+	 * @return locator and element index or <code>null</code> if the description is not a single locator
+	 */
+	@Nullable
+	static Map.Entry<By, Integer> locator(@Nullable String description) {
+		if (description == null || description.isBlank()) {
+			return null;
+		}
+		String selector = description.trim();
+		int index = 0;
+		Matcher matcher = INDEX_PATTERN.matcher(selector);
+		if (matcher.matches()) {
+			selector = matcher.group(1);
+			index = Integer.parseInt(matcher.group(2));
+		}
+		for (Map.Entry<String, Function<String, By>> locator : LOCATORS.entrySet()) {
+			if (selector.startsWith(locator.getKey())) {
+				return Map.entry(locator.getValue().apply(selector.substring(locator.getKey().length())), index);
+			}
+		}
+		// Chained searches and elements wrapped by Selenide can't be found by a single CSS selector
+		if (selector.startsWith("By.") || selector.startsWith("<") || isChained(selector)) {
+			return null;
+		}
+		return Map.entry(By.cssSelector(selector), index);
+	}
+
+	@Nullable
+	private static WebElement findElement(@Nonnull WebDriver driver, @Nonnull LogEvent event) {
+		Map.Entry<By, Integer> locator = locator(event.getElement());
+		if (locator == null) {
+			return null;
+		}
+		List<WebElement> elements = driver.findElements(locator.getKey());
+		return elements.size() > locator.getValue() ? elements.get(locator.getValue()) : null;
+	}
+
+	@Nonnull
+	private static byte[] crop(@Nonnull byte[] screenshot, @Nonnull List<?> rectangle, int margin) throws IOException {
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshot));
+		if (image == null) {
+			throw new IOException("Unable to decode screenshot image");
+		}
+		double ratio = ((Number) rectangle.get(4)).doubleValue();
+		double left = ((Number) rectangle.get(0)).doubleValue() - margin;
+		double top = ((Number) rectangle.get(1)).doubleValue() - margin;
+		double right = left + ((Number) rectangle.get(2)).doubleValue() + 2 * margin;
+		double bottom = top + ((Number) rectangle.get(3)).doubleValue() + 2 * margin;
+		int x = Math.max(0, (int) Math.floor(left * ratio));
+		int y = Math.max(0, (int) Math.floor(top * ratio));
+		int width = Math.min(image.getWidth(), (int) Math.ceil(right * ratio)) - x;
+		int height = Math.min(image.getHeight(), (int) Math.ceil(bottom * ratio)) - y;
+		if (width <= 0 || height <= 0) {
+			return screenshot;
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image.getSubimage(x, y, width, height), "png", output);
+		return output.toByteArray();
+	}
+
+	@Nonnull
+	private byte[] captureElement(@Nonnull WebDriver driver, @Nonnull WebElement target) throws IOException {
+		if (margin <= 0 || !(driver instanceof JavascriptExecutor)) {
+			return target.getScreenshotAs(OutputType.BYTES);
+		}
+		Object rectangle = ((JavascriptExecutor) driver).executeScript(ELEMENT_RECTANGLE_SCRIPT, target);
+		if (!(rectangle instanceof List) || ((List<?>) rectangle).size() < 5) {
+			return target.getScreenshotAs(OutputType.BYTES);
+		}
+		return crop(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), (List<?>) rectangle, margin);
+	}
+
+	/**
+	 * Capture a screenshot for the failed event.
+	 *
+	 * @param driver WebDriver instance
+	 * @param event  failed Selenide event
+	 * @return PNG screenshot bytes or <code>null</code> if there is nothing to capture
+	 * @throws IOException if the screenshot can't be cropped
+	 */
+	@Nullable
+	public byte[] capture(@Nonnull WebDriver driver, @Nonnull LogEvent event) throws IOException {
+		if (element) {
+			try {
+				WebElement target = findElement(driver, event);
+				if (target != null) {
+					return captureElement(driver, target);
+				}
+			} catch (WebDriverException | ClassCastException | IOException e) {
+				if (!pageFallback) {
+					throw e;
+				}
+			}
+			if (!pageFallback) {
+				return null;
+			}
+		}
+		return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Factory of common Selenide event filters, which can be passed to
+ * {@link ReportPortalSelenideEventListener#filterSelenideLogs(Predicate)}.
+ * <p>
+ * Usage:
+ * <pre>
+ *     new ReportPortalSelenideEventListener().filterSelenideLogs(SelenideLogFilters.subjectMatches("^(?!wait)"));
+ * </pre>
+ */
+public final class SelenideLogFilters {
+
+	private SelenideLogFilters() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	/**
+	 * Filter which accepts events with a subject (E.G. "click", "should have(visible)") passing the given predicate.
+	 *
+	 * @param predicate subject predicate, is not called for events without a subject
+	 * @return event filter
+	 */
+	@Nonnull
+	public static Predicate<LogEvent> subject(@Nonnull Predicate<String> predicate) {
+		return event -> {
+			String subject = event.getSubject();
+			return subject != null && predicate.test(subject);
+		};
+	}
+
+	/**
+	 * Filter which accepts events with an element description (E.G. "$(By.id: login)") passing the given predicate.
+	 *
+	 * @param predicate element predicate, is not called for events without an element
+	 * @return event filter
+	 */
+	@Nonnull
+	public static Predicate<LogEvent> element(@Nonnull Predicate<String> predicate) {
+		return event -> {
+			String element = event.getElement();
+			return element != null && predicate.test(element);
+		};
+	}
+
+	/**
+	 * Filter which accepts events with a subject matching the given regular expression. The expression is compiled once.
+	 *
+	 * @param regex regular expression which should be found in the subject
+	 * @return event filter
+	 */
+	@Nonnull
+	public static Predicate<LogEvent> subjectMatches(@Nonnull String regex) {
+		return subject(Pattern.compile(regex).asPredicate());
+	}
+
+	/**
+	 * Filter which accepts events with an element description matching the given regular expression. The expression is compiled once.
+	 *
+	 * @param regex regular expression which should be found in the element description
+	 * @return event filter
+	 */
+	@Nonnull
+	public static Predicate<LogEvent> elementMatches(@Nonnull String regex) {
+		return element(Pattern.compile(regex).asPredicate());
+	}
+}
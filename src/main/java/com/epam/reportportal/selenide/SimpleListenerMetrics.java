@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.epam.reportportal.listeners.LogLevel;
+import com.epam.reportportal.service.ReportPortal;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simple in-memory {@link ListenerMetrics} registry with timers of listener work phases and counters of attached bytes and skipped
+ * events. It can put a summary into the launch log, E.G. at the end of a suite:
+ * <pre>
+ *     SimpleListenerMetrics metrics = new SimpleListenerMetrics();
+ *     SelenideLogger.addListener("Report Portal logger", new ReportPortalSelenideEventListener().metrics(metrics));
+ *     ...
+ *     metrics.logSummary();
+ * </pre>
+ */
+public class SimpleListenerMetrics implements ListenerMetrics {
+
+	private static final String SUMMARY_HEADER = "Report Portal Selenide listener metrics:";
+	private static final String TIMER_PATTERN = "%n%s: count=%d, total=%d ms, max=%d ms";
+	private static final String BYTES_PATTERN = "%nattached %s: %d bytes";
+	private static final String SKIPPED_PATTERN = "%nskipped events: %d";
+
+	private static final class Timer {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder total = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+		private void record(long nanos) {
+			count.increment();
+			total.add(nanos);
+			max.accumulate(nanos);
+		}
+	}
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> bytes = new ConcurrentHashMap<>();
+	private final LongAdder skippedEvents = new LongAdder();
+
+	@Nonnull
+	private static String timerName(@Nonnull Phase phase, @Nullable String tag) {
+		return tag == null ? phase.name() : phase.name() + ":" + tag;
+	}
+
+	@Nonnull
+	private static String bytesName(@Nullable ArtifactType type) {
+		return type == null ? BUNDLE_TAG : type.name();
+	}
+
+	@Override
+	public void recordTime(@Nonnull Phase phase, @Nullable String tag, long nanos) {
+		timers.computeIfAbsent(timerName(phase, tag), k -> new Timer()).record(nanos);
+	}
+
+	@Override
+	public void recordAttachment(@Nullable ArtifactType type, long bytes) {
+		this.bytes.computeIfAbsent(bytesName(type), k -> new LongAdder()).add(bytes);
+	}
+
+	@Override
+	public void recordSkippedEvent(@Nonnull LogEvent event) {
+		skippedEvents.increment();
+	}
+
+	/**
+	 * Get number of times the phase was passed.
+	 *
+	 * @param phase phase of listener work
+	 * @param tag   phase detail, or <code>null</code> for phases without details
+	 * @return number of records
+	 */
+	public long getCount(@Nonnull Phase phase, @Nullable String tag) {
+		Timer timer = timers.get(timerName(phase, tag));
+		return timer == null ? 0L : timer.count.sum();
+	}
+
+	/**
+	 * Get total time spent in the phase.
+	 *
+	 * @param phase phase of listener work
+	 * @param tag   phase detail, or <code>null</code> for phases without details
+	 * @param unit  time unit of the result
+	 * @return total time
+	 */
+	public long getTotalTime(@Nonnull Phase phase, @Nullable String tag, @Nonnull TimeUnit unit) {
+		Timer timer = timers.get(timerName(phase, tag));
+		return timer == null ? 0L : unit.convert(timer.total.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Get total size of attachments of the given artifact type.
+	 *
+	 * @param type artifact type, <code>null</code> for bundled artifacts
+	 * @return size in bytes after encoding and compression
+	 */
+	public long getAttachedBytes(@Nullable ArtifactType type) {
+		LongAdder result = bytes.get(bytesName(type));
+		return result == null ? 0L : result.sum();
+	}
+
+	/**
+	 * Get number of Selenide events which were not logged because of their type or event filter.
+	 *
+	 * @return number of events
+	 */
+	public long getSkippedEvents() {
+		return skippedEvents.sum();
+	}
+
+	/**
+	 * Build a human-readable summary of all recorded metrics.
+	 *
+	 * @return metrics summary
+	 */
+	@Nonnull
+	public String summary() {
+		StringBuilder result = new StringBuilder(SUMMARY_HEADER);
+		new TreeMap<>(timers).forEach((name, timer) -> result.append(String.format(
+				TIMER_PATTERN,
+				name,
+				timer.count.sum(),
+				TimeUnit.NANOSECONDS.toMillis(timer.total.sum()),
+				TimeUnit.NANOSECONDS.toMillis(timer.max.get())
+		)));
+		new TreeMap<>(bytes).forEach((name, size) -> result.append(String.format(BYTES_PATTERN, name, size.sum())));
+		result.append(String.format(SKIPPED_PATTERN, skippedEvents.sum()));
+		return result.toString();
+	}
+
+	/**
+	 * Put metrics summary into the current launch log. Suitable to call at the end of a suite, before the launch finish.
+	 */
+	public void logSummary() {
+		ReportPortal.emitLaunchLog(summary(), LogLevel.INFO.name(), Instant.now());
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * A step which is kept open in a test to collect consecutive Selenide events. The first event gives the step its name, the next ones are
+ * added to it as log entries instead of separate steps. The batch is kept in the test's {@link StepContext}.
+ */
+final class StepBatch {
+
+	private int size = 1;
+	private String pending;
+
+	/**
+	 * Check if one more event can be added to the batch.
+	 *
+	 * @param maxSize maximum number of events in a batch
+	 * @return <code>true</code> if the batch step is not full
+	 */
+	boolean accepts(int maxSize) {
+		return size < maxSize;
+	}
+
+	/**
+	 * Add an event which has started to the batch.
+	 *
+	 * @param stepName converted event name
+	 */
+	void add(@Nonnull String stepName) {
+		size++;
+		pending = stepName;
+	}
+
+	/**
+	 * Take the name of the added event which has not finished yet.
+	 *
+	 * @return event name or <code>null</code> if the last event started its own step
+	 */
+	@Nullable
+	String takePending() {
+		String result = pending;
+		pending = null;
+		return result;
+	}
+}
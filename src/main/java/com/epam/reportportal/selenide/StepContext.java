@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.step.StepReporter;
+import io.reactivex.Maybe;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reporting context of a test thread: current launch, its step reporter and the test the steps belong to. The context is bound once per
+ * test and reused for every event of the test, each event only checks that the launch and the test are still the same. Once the launch
+ * or the test on the thread changes, a new context is bound, so any per-test state kept in the context, like an open batch step, is
+ * dropped with the old one.
+ */
+final class StepContext {
+
+	private static final class PageSourceState {
+		private final String pageSource;
+		private final int diffs;
+
+		private PageSourceState(@Nonnull String pageSource, int diffs) {
+			this.pageSource = pageSource;
+			this.diffs = diffs;
+		}
+	}
+
+	private final Launch launch;
+	private final StepReporter reporter;
+	private final Maybe<String> test;
+	private Maybe<String> step;
+	private StepBatch batch;
+	private FlightRecorder.Frames frames;
+	private final Map<String, PageSourceState> pageSources = new HashMap<>();
+
+	private StepContext(@Nonnull Launch launch, @Nonnull StepReporter reporter, @Nullable Maybe<String> test) {
+		this.launch = launch;
+		this.reporter = reporter;
+		this.test = test;
+	}
+
+	/**
+	 * Get the context of the current thread, bind a new one if there is no context yet or the launch or the test has changed. A bound
+	 * context is checked by identity of the current launch and of the current parent item of its step reporter.
+	 *
+	 * @param holder per-thread context holder
+	 * @return current context or <code>null</code> if there is no launch on the thread
+	 */
+	@Nullable
+	static StepContext current(@Nonnull ThreadLocal<StepContext> holder) {
+		Launch launch = Launch.currentLaunch();
+		StepContext context = holder.get();
+		if (context != null && context.launch == launch && context.reporter.getParent() == context.test) {
+			return context;
+		}
+		if (launch == null) {
+			holder.remove();
+			return null;
+		}
+		StepReporter reporter = launch.getStepReporter();
+		context = new StepContext(launch, reporter, reporter.getParent());
+		holder.set(context);
+		return context;
+	}
+
+	@Nonnull
+	Launch getLaunch() {
+		return launch;
+	}
+
+	@Nonnull
+	StepReporter getReporter() {
+		return reporter;
+	}
+
+	/**
+	 * Get the step which was started last in the current test, attachments of a failed event belong to it.
+	 *
+	 * @return step item ID or <code>null</code> if no step was started
+	 */
+	@Nullable
+	Maybe<String> getStep() {
+		return step;
+	}
+
+	void setStep(@Nullable Maybe<String> step) {
+		this.step = step;
+	}
+
+	/**
+	 * Get the batch step which is open in the current test.
+	 *
+	 * @return open batch step or <code>null</code> if there is none
+	 */
+	@Nullable
+	StepBatch getBatch() {
+		return batch;
+	}
+
+	void setBatch(@Nullable StepBatch batch) {
+		this.batch = batch;
+	}
+
+	/**
+	 * Get the flight recorder frames taken in the current test.
+	 *
+	 * @return frame buffer or <code>null</code> if there is none
+	 */
+	@Nullable
+	FlightRecorder.Frames getFrames() {
+		return frames;
+	}
+
+	void setFrames(@Nullable FlightRecorder.Frames frames) {
+		this.frames = frames;
+	}
+
+	/**
+	 * Get the last page source attached in the current test, page source diffs are made against it.
+	 *
+	 * @param fileName page source file name, which is different for each browser
+	 * @return last page source or <code>null</code> if there is none
+	 */
+	@Nullable
+	String getPageSource(@Nonnull String fileName) {
+		PageSourceState state = pageSources.get(fileName);
+		return state == null ? null : state.pageSource;
+	}
+
+	/**
+	 * Get the number of page source diffs attached since the last full page source.
+	 *
+	 * @param fileName page source file name, which is different for each browser
+	 * @return diff number
+	 */
+	int getPageSourceDiffs(@Nonnull String fileName) {
+		PageSourceState state = pageSources.get(fileName);
+		return state == null ? 0 : state.diffs;
+	}
+
+	void setPageSource(@Nonnull String fileName, @Nonnull String pageSource, int diffs) {
+		pageSources.put(fileName, new PageSourceState(pageSource, diffs));
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Step name converter, which masks secret data in step names. All masking expressions are compiled once into a single expression, so a
+ * step name is scanned once whatever number of expressions is set. Converted names can be cached, that saves the scan for repeated
+ * steps. Step names of {@link SelenideLog} events are built directly from their element and subject.
+ * <p>
+ * Usage:
+ * <pre>
+ *     new ReportPortalSelenideEventListener(LogLevel.INFO, StepNameConverter.create()
+ *         .mask("secret_token=[^&amp;]*", "secret_token=&lt;removed&gt;")
+ *         .mask("password\\(\"[^\"]*\"\\)", "password(\"*****\")")
+ *         .cache(1000));
+ * </pre>
+ */
+public class StepNameConverter implements Function<String, String> {
+
+	private static final class Cache extends LinkedHashMap<String, String> {
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private Cache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+	private final List<String> expressions;
+	private final List<String> replacements;
+	private final int cacheSize;
+	private final Pattern pattern;
+	private final int[] groups;
+	private final Cache cache;
+
+	private StepNameConverter(@Nonnull List<String> expressions, @Nonnull List<String> replacements, int cacheSize) {
+		this.expressions = expressions;
+		this.replacements = replacements;
+		this.cacheSize = cacheSize;
+		// Wrap every expression into a group and remember its number, taking into account groups inside the expressions
+		groups = new int[expressions.size()];
+		StringBuilder combined = new StringBuilder();
+		int group = 1;
+		for (int i = 0; i < expressions.size(); i++) {
+			String expression = expressions.get(i);
+			if (i > 0) {
+				combined.append('|');
+			}
+			combined.append('(').append(shiftReferences(expression, group)).append(')');
+			groups[i] = group;
+			group += Pattern.compile(expression).matcher("").groupCount() + 1;
+		}
+		pattern = expressions.isEmpty() ? null : Pattern.compile(combined.toString());
+		cache = cacheSize > 0 ? new Cache(cacheSize) : null;
+	}
+
+	private static boolean isCapturingGroup(@Nonnull String expression, int start) {
+		if (start + 1 >= expression.length() || expression.charAt(start + 1) != '?') {
+			return true;
+		}
+		// Named group "(?<name>...)", but not a lookbehind "(?<=...)" or "(?<!...)"
+		return start + 3 < expression.length() && expression.charAt(start + 2) == '<' && expression.charAt(start + 3) != '='
+				&& expression.charAt(start + 3) != '!';
+	}
+
+	/**
+	 * Renumber back references of an expression, since the expression is wrapped into a group and put after other expressions in the
+	 * combined one. A back reference number is parsed the same way {@link Pattern} does it: digits are taken while they form a number of
+	 * a group, which is opened before the reference. The reference is put into a non-capturing group, so digits which follow it are not
+	 * taken as a part of the new number.
+	 *
+	 * @param expression masking expression
+	 * @param offset     number of the group the expression is wrapped into
+	 * @return expression which refers to the same groups inside the combined expression
+	 */
+	@Nonnull
+	private static String shiftReferences(@Nonnull String expression, int offset) {
+		int groupCount = Pattern.compile(expression).matcher("").groupCount();
+		StringBuilder result = new StringBuilder(expression.length());
+		int opened = 0;
+		int classDepth = 0;
+		boolean quoted = false;
+		int i = 0;
+		while (i < expression.length()) {
+			char c = expression.charAt(i);
+			char next = i + 1 < expression.length() ? expression.charAt(i + 1) : 0;
+			if (quoted) {
+				quoted = c != '\\' || next != 'E';
+				int length = quoted ? 1 : 2;
+				result.append(expression, i, i + length);
+				i += length;
+				continue;
+			}
+			if (c == '\\' && classDepth == 0 && next >= '1' && next <= '9') {
+				int reference = next - '0';
+				int end = i + 2;
+				while (end < expression.length() && expression.charAt(end) >= '0' && expression.charAt(end) <= '9'
+						&& reference * 10 + expression.charAt(end) - '0' <= opened) {
+					reference = reference * 10 + expression.charAt(end) - '0';
+					end++;
+				}
+				if (reference > groupCount) {
+					throw new IllegalArgumentException("Masking expression '" + expression + "' refers to a missing group: " + reference);
+				}
+				result.append("(?:\\").append(reference + offset).append(')');
+				i = end;
+				continue;
+			}
+			if (c == '\\') {
+				quoted = next == 'Q';
+				result.append(expression, i, Math.min(i + 2, expression.length()));
+				i += 2;
+				continue;
+			}
+			if (c == '[') {
+				classDepth++;
+			} else if (c == ']' && classDepth > 0) {
+				classDepth--;
+			} else if (c == '(' && classDepth == 0 && isCapturingGroup(expression, i)) {
+				opened++;
+			}
+			result.append(c);
+			i++;
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Converter without masking expressions and cache, which keeps step names as is.
+	 *
+	 * @return converter instance
+	 */
+	@Nonnull
+	public static StepNameConverter create() {
+		return new StepNameConverter(Collections.emptyList(), Collections.emptyList(), 0);
+	}
+
+	/**
+	 * Add a masking expression. If several expressions match at the same position, the first added one is applied.
+	 *
+	 * @param regex       regular expression of a secret, numbered back references are supported
+	 * @param replacement literal replacement of the secret, group references are not supported
+	 * @return new converter instance
+	 * @throws IllegalArgumentException if the expression refers to a group it does not have
+	 */
+	@Nonnull
+	public StepNameConverter mask(@Nonnull String regex, @Nonnull String replacement) {
+		List<String> newExpressions = new ArrayList<>(expressions);
+		newExpressions.add(regex);
+		List<String> newReplacements = new ArrayList<>(replacements);
+		newReplacements.add(replacement);
+		return new StepNameConverter(Collections.unmodifiableList(newExpressions), Collections.unmodifiableList(newReplacements), cacheSize);
+	}
+
+	/**
+	 * Cache converted step names. When the cache is full the least recently used name is evicted.
+	 *
+	 * @param maxSize maximum number of cached names
+	 * @return new converter instance
+	 */
+	@Nonnull
+	public StepNameConverter cache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Step name cache size should be positive: " + maxSize);
+		}
+		return new StepNameConverter(expressions, replacements, maxSize);
+	}
+
+	@Nonnull
+	private String mask(@Nonnull String stepName) {
+		Matcher matcher = pattern.matcher(stepName);
+		if (!matcher.find()) {
+			return stepName;
+		}
+		StringBuilder result = new StringBuilder(stepName.length());
+		int last = 0;
+		do {
+			int i = 0;
+			while (matcher.start(groups[i]) < 0) {
+				i++;
+			}
+			result.append(stepName, last, matcher.start()).append(replacements.get(i));
+			last = matcher.end();
+		} while (matcher.find());
+		return result.append(stepName, last, stepName.length()).toString();
+	}
+
+	/**
+	 * Mask the given step name.
+	 *
+	 * @param stepName step name
+	 * @return masked step name
+	 */
+	@Override
+	@Nonnull
+	public String apply(@Nonnull String stepName) {
+		if (pattern == null) {
+			return stepName;
+		}
+		if (cache == null) {
+			return mask(stepName);
+		}
+		String result;
+		synchronized (cache) {
+			result = cache.get(stepName);
+		}
+		if (result == null) {
+			result = mask(stepName);
+			synchronized (cache) {
+				cache.put(stepName, result);
+			}
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static String name(@Nonnull LogEvent event) {
+		// Same as SelenideLog.toString(), but without format string parsing
+		if (event.getClass() == SelenideLog.class) {
+			return "$(\"" + event.getElement() + "\") " + event.getSubject();
+		}
+		return event.toString();
+	}
+
+	/**
+	 * Get masked step name of the given event.
+	 *
+	 * @param event Selenide event
+	 * @return masked step name
+	 */
+	@Nonnull
+	public String convert(@Nonnull LogEvent event) {
+		return apply(name(event));
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.service.Launch;
+import jakarta.annotation.Nullable;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Identifies the test which is currently running on the thread, to reset per-test state once it changes.
+ */
+final class TestScope {
+
+	private TestScope() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	/**
+	 * Get an object which identifies current test. Objects should be compared by identity.
+	 *
+	 * @return current test identity or <code>null</code> if there is no launch
+	 */
+	@Nullable
+	static Object currentTest() {
+		return ofNullable(Launch.currentLaunch()).map(l -> l.getStepReporter().getParent()).orElse(null);
+	}
+}
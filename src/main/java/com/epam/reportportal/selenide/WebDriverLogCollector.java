@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.selenide;
+
+import jakarta.annotation.Nonnull;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Collects WebDriver logs incrementally during a test into bounded per-type buffers, so a failure reads only the entries which came since
+ * the last poll. Buffers are kept per test thread and are reset once the thread's WebDriver changes.
+ */
+final class WebDriverLogCollector {
+
+	private static final long POLL_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	private final class DriverLogs {
+		private final WeakReference<WebDriver> driver;
+		private final Map<String, LogRing> rings = new HashMap<>();
+		private long lastPoll = System.nanoTime() - POLL_INTERVAL;
+
+		private DriverLogs(@Nonnull WebDriver driver) {
+			this.driver = new WeakReference<>(driver);
+		}
+
+		@Nonnull
+		private LogRing ring(@Nonnull String logType) {
+			return rings.computeIfAbsent(logType, t -> new LogRing(t, maxEntries, maxAgeMillis));
+		}
+	}
+
+	private final int maxEntries;
+	private final long maxAgeMillis;
+	private final ThreadLocal<DriverLogs> logs = new ThreadLocal<>();
+
+	WebDriverLogCollector(int maxEntries, long maxAge, @Nonnull TimeUnit unit) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("Log buffer size should be positive: " + maxEntries);
+		}
+		if (maxAge <= 0) {
+			throw new IllegalArgumentException("Log buffer age should be positive: " + maxAge);
+		}
+		this.maxEntries = maxEntries;
+		this.maxAgeMillis = unit.toMillis(maxAge);
+	}
+
+	@Nonnull
+	private DriverLogs driverLogs(@Nonnull WebDriver driver) {
+		DriverLogs result = logs.get();
+		if (result == null || result.driver.get() != driver) {
+			result = new DriverLogs(driver);
+			logs.set(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Poll enabled log types into buffers, not more often than once a second. Poll errors are ignored, they will show up on a failure.
+	 *
+	 * @param driver   current thread's WebDriver
+	 * @param logTypes enabled log types with their minimal levels
+	 */
+	void poll(@Nonnull WebDriver driver, @Nonnull Map<String, Level> logTypes) {
+		DriverLogs driverLogs = driverLogs(driver);
+		long now = System.nanoTime();
+		if (now - driverLogs.lastPoll < POLL_INTERVAL) {
+			return;
+		}
+		driverLogs.lastPoll = now;
+		logTypes.forEach((type, level) -> {
+			try {
+				driverLogs.ring(type).poll(driver, level);
+			} catch (RuntimeException ignore) {
+				// The driver may not support the log type, capture on failure will report that
+			}
+		});
+	}
+
+	/**
+	 * Get the buffer of the given log type. Should be called on the test thread, the buffer itself can be read on any thread.
+	 *
+	 * @param driver  current thread's WebDriver
+	 * @param logType log type
+	 * @return log buffer
+	 */
+	@Nonnull
+	LogRing ring(@Nonnull WebDriver driver, @Nonnull String logType) {
+		return driverLogs(driver).ring(logType);
+	}
+}
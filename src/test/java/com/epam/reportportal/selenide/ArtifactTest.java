@@ -0,0 +1,74 @@
+package com.epam.reportportal.selenide;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ArtifactTest {
+
+	private static final String SEPARATOR = "\n\n";
+	private static final List<String> LOGS = Arrays.asList(
+			"first entry: " + String.join("", Collections.nCopies(100, "a")),
+			"second entry: éè",
+			"third entry: 😀 中"
+	);
+
+	private static Artifact logs(List<String> entries) {
+		return Artifact.text(ArtifactType.SELENIUM_LOG, "logs", "browser.log", "text/plain", entries, SEPARATOR);
+	}
+
+	private static Artifact page(String page) {
+		return Artifact.text(ArtifactType.PAGE_SOURCE, "page", "page.html", "text/html", Collections.singletonList(page), "");
+	}
+
+	@Test
+	public void test_text_artifact_encoding() throws IOException {
+		byte[] expected = String.join(SEPARATOR, LOGS).getBytes(StandardCharsets.UTF_8);
+		Artifact artifact = logs(LOGS);
+
+		assertThat(artifact.size(), equalTo((long) expected.length));
+		assertThat(artifact.toBytes(), equalTo(expected));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		artifact.writeTo(output);
+		assertThat(output.toByteArray(), equalTo(expected));
+	}
+
+	@Test
+	public void test_page_source_truncation() throws IOException {
+		String source = String.join("", Collections.nCopies(1000, "<div>é</div>"));
+		Artifact artifact = page(source).truncate(500);
+
+		byte[] result = artifact.toBytes();
+		assertThat(result.length, lessThanOrEqualTo(500));
+		String text = new String(result, StandardCharsets.UTF_8);
+		assertThat(text, startsWith("<div>é</div>"));
+		assertThat(text, endsWith("[Truncated: the artifact exceeded 500 bytes]"));
+	}
+
+	@Test
+	public void test_logs_truncation_keeps_last_entries() throws IOException {
+		Artifact artifact = logs(LOGS);
+		long limit = artifact.size() - 1;
+
+		byte[] result = artifact.truncate(limit).toBytes();
+		assertThat(result.length, lessThanOrEqualTo((int) limit));
+		String text = new String(result, StandardCharsets.UTF_8);
+		assertThat(text, startsWith("[Truncated: 1 earlier entries]" + SEPARATOR + LOGS.get(1)));
+		assertThat(text, endsWith(LOGS.get(2)));
+	}
+
+	@Test
+	public void test_small_artifact_is_not_truncated() {
+		Artifact artifact = page("<html></html>");
+		assertThat(artifact.truncate(1024), sameInstance(artifact));
+	}
+}
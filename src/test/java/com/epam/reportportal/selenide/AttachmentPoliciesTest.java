@@ -0,0 +1,105 @@
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import com.epam.reportportal.service.Launch;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+
+public class AttachmentPoliciesTest {
+
+	private static final String STEP_NAME = "$(\"#login\") click()";
+
+	private final LogEvent event = mock(SelenideLog.class);
+
+	@Test
+	public void test_first_failures_per_test() {
+		AttachmentPolicy policy = AttachmentPolicies.firstFailuresPerTest(2);
+
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_once_per_step() {
+		AttachmentPolicy policy = AttachmentPolicies.oncePerStep();
+
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+		assertThat(policy.captureFailure(event, STEP_NAME + " again"), equalTo(Boolean.TRUE));
+	}
+
+	@Test
+	public void test_rate_limit_burst() {
+		AttachmentPolicy policy = AttachmentPolicies.rateLimit(0.001, 2);
+
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_rate_limit_per_launch() {
+		AttachmentPolicy policy = AttachmentPolicies.rateLimit(0.001, 1);
+
+		try (MockedStatic<Launch> launchMockedStatic = Mockito.mockStatic(Launch.class)) {
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(mock(Launch.class));
+			assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+			assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(mock(Launch.class));
+			assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		}
+	}
+
+	@Test
+	public void test_byte_budget_per_launch() {
+		AttachmentPolicy policy = AttachmentPolicies.byteBudget(100);
+
+		try (MockedStatic<Launch> launchMockedStatic = Mockito.mockStatic(Launch.class)) {
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(mock(Launch.class));
+			assertThat(policy.attachArtifact(ArtifactType.PAGE_SOURCE, 100), equalTo(Boolean.TRUE));
+			assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(mock(Launch.class));
+			assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+			assertThat(policy.attachArtifact(ArtifactType.PAGE_SOURCE, 100), equalTo(Boolean.TRUE));
+		}
+	}
+
+	@Test
+	public void test_byte_budget() {
+		AttachmentPolicy policy = AttachmentPolicies.byteBudget(100);
+
+		assertThat(policy.attachArtifact(ArtifactType.PAGE_SOURCE, 60), equalTo(Boolean.TRUE));
+		assertThat(policy.attachArtifact(ArtifactType.SCREENSHOT, 60), equalTo(Boolean.FALSE));
+		assertThat(policy.attachArtifact(ArtifactType.SELENIUM_LOG, 40), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_all_policies_should_agree() {
+		AttachmentPolicy policy = AttachmentPolicies.all(AttachmentPolicies.always(), AttachmentPolicies.firstFailuresPerTest(1));
+
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_all_policies_cancel_on_rejection() {
+		AttachmentPolicy budget = AttachmentPolicies.byteBudget(100);
+		AttachmentPolicy firstFailure = AttachmentPolicies.firstFailuresPerTest(1);
+		AttachmentPolicy policy = AttachmentPolicies.all(firstFailure, budget, AttachmentPolicies.byteBudget(50));
+
+		assertThat(policy.attachArtifact(ArtifactType.PAGE_SOURCE, 60), equalTo(Boolean.FALSE));
+		assertThat(budget.attachArtifact(ArtifactType.PAGE_SOURCE, 100), equalTo(Boolean.TRUE));
+		assertThat(policy.captureFailure(event, STEP_NAME), equalTo(Boolean.FALSE));
+		assertThat(firstFailure.captureFailure(event, STEP_NAME), equalTo(Boolean.TRUE));
+	}
+}
@@ -0,0 +1,72 @@
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AttachmentSpoolTest {
+
+	@TempDir
+	Path directory;
+
+	private static long fileCount(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	@Test
+	public void test_spool_keeps_small_attachments_in_memory() throws IOException {
+		AttachmentSpool spool = new AttachmentSpool(1024, directory);
+		ArtifactByteSource attachment = ArtifactByteSource.of(new byte[100], "image/png");
+
+		TypeAwareByteSource result = spool.spool(attachment);
+
+		assertThat(result, not(instanceOf(AttachmentSpool.SpoolFile.class)));
+		assertThat(result.getMediaType(), equalTo("image/png"));
+		assertThat(spool.getInMemory(), equalTo(100L));
+		assertThat(fileCount(directory), equalTo(0L));
+	}
+
+	@Test
+	public void test_spool_releases_attachments_on_read() throws IOException {
+		AttachmentSpool spool = new AttachmentSpool(1024, directory);
+		byte[] data = new byte[100];
+		TypeAwareByteSource result = spool.spool(ArtifactByteSource.of(data, "image/png"));
+
+		assertThat(result.read(), equalTo(data));
+		assertThat(spool.getInMemory(), equalTo(0L));
+		assertThat(result.read(), equalTo(data));
+		assertThat(spool.getInMemory(), equalTo(0L));
+	}
+
+	@Test
+	public void test_spool_spills_attachments_over_cap() throws IOException {
+		AttachmentSpool spool = new AttachmentSpool(150, directory);
+		TypeAwareByteSource small = spool.spool(ArtifactByteSource.of(new byte[100], "image/png"));
+		byte[] data = "<html><body>page</body></html>".getBytes(StandardCharsets.UTF_8);
+		byte[] large = new byte[100];
+		System.arraycopy(data, 0, large, 0, data.length);
+
+		TypeAwareByteSource result = spool.spool(ArtifactByteSource.of(large, "text/html"));
+
+		assertThat(result, instanceOf(AttachmentSpool.SpoolFile.class));
+		assertThat(result.getMediaType(), equalTo("text/html"));
+		assertThat(spool.getInMemory(), equalTo(100L));
+		assertThat(fileCount(directory), equalTo(1L));
+
+		assertThat(result.read(), equalTo(large));
+		assertThat(fileCount(directory), equalTo(0L));
+		Reference.reachabilityFence(small);
+	}
+}
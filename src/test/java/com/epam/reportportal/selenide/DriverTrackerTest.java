@@ -0,0 +1,32 @@
+package com.epam.reportportal.selenide;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class DriverTrackerTest {
+
+	private static final String CURRENT_LABEL = "default browser";
+
+	@Test
+	public void test_tracker_rejects_duplicate_labels() {
+		RemoteWebDriver adminDriver = mock(RemoteWebDriver.class);
+		RemoteWebDriver userDriver = mock(RemoteWebDriver.class);
+		DriverTracker tracker = new DriverTracker(CURRENT_LABEL);
+		tracker.track("admin browser", adminDriver);
+
+		assertThrows(IllegalArgumentException.class, () -> tracker.track("admin browser", userDriver));
+		assertThrows(IllegalArgumentException.class, () -> tracker.track(CURRENT_LABEL, userDriver));
+
+		tracker.track("admin browser", adminDriver);
+		tracker.track("user browser", userDriver);
+		Map<String, ?> drivers = tracker.drivers(mock(RemoteWebDriver.class));
+		assertThat(drivers.keySet(), contains(CURRENT_LABEL, "admin browser", "user browser"));
+	}
+}
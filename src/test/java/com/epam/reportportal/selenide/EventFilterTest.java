@@ -0,0 +1,49 @@
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+
+public class EventFilterTest {
+
+	private static class CustomLog extends SelenideLog {
+		CustomLog(String element, String subject) {
+			super(element, subject);
+		}
+	}
+
+	@Test
+	public void test_filter_accepts_subclasses() {
+		EventFilter filter = new EventFilter(Collections.singleton(SelenideLog.class), null);
+
+		assertThat(filter.accept(new SelenideLog("$(\"#login\")", "click()")), equalTo(Boolean.TRUE));
+		assertThat(filter.accept(new CustomLog("$(\"#login\")", "click()")), equalTo(Boolean.TRUE));
+		assertThat(filter.accept(mock(LogEvent.class)), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_filter_applies_predicate() {
+		EventFilter filter = new EventFilter(
+				Collections.singleton(SelenideLog.class),
+				SelenideLogFilters.subjectMatches("^click").and(SelenideLogFilters.elementMatches("login"))
+		);
+
+		assertThat(filter.accept(new SelenideLog("$(\"#login\")", "click()")), equalTo(Boolean.TRUE));
+		assertThat(filter.accept(new SelenideLog("$(\"#logout\")", "click()")), equalTo(Boolean.FALSE));
+		assertThat(filter.accept(new SelenideLog("$(\"#login\")", "should be(visible)")), equalTo(Boolean.FALSE));
+		assertThat(filter.accept(new SelenideLog(null, null)), equalTo(Boolean.FALSE));
+	}
+
+	@Test
+	public void test_filter_without_types() {
+		EventFilter filter = new EventFilter(Collections.emptySet(), null);
+
+		assertThat(filter.accept(new SelenideLog("$(\"#login\")", "click()")), equalTo(Boolean.FALSE));
+	}
+}
@@ -0,0 +1,45 @@
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Level;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ListenerConfigurationTest {
+
+	@Test
+	public void test_update_keeps_previous_snapshot() {
+		ListenerConfiguration initial = ListenerConfiguration.DEFAULT;
+		ListenerConfiguration updated = initial.update(c -> {
+			c.seleniumLogTypes().put("browser", Level.ALL);
+			c.selenideLogTypes().add(LogEvent.class);
+			c.sizeLimits().put(ArtifactType.PAGE_SOURCE, 1024L);
+			c.screenshots(false);
+		});
+
+		assertThat(initial.getSeleniumLogTypes().keySet(), empty());
+		assertThat(initial.getSelenideLogTypes(), contains(SelenideLog.class));
+		assertThat(initial.getSizeLimits().keySet(), empty());
+		assertThat(initial.isScreenshots(), equalTo(Boolean.TRUE));
+
+		assertThat(updated.getSeleniumLogTypes(), hasEntry("browser", Level.ALL));
+		assertThat(updated.getSelenideLogTypes(), containsInAnyOrder(SelenideLog.class, LogEvent.class));
+		assertThat(updated.getSizeLimits(), hasEntry(ArtifactType.PAGE_SOURCE, 1024L));
+		assertThat(updated.isScreenshots(), equalTo(Boolean.FALSE));
+		assertThat(updated.isPageSources(), equalTo(Boolean.TRUE));
+	}
+
+	@Test
+	public void test_snapshot_is_unmodifiable() {
+		ListenerConfiguration configuration = ListenerConfiguration.DEFAULT;
+
+		assertThrows(UnsupportedOperationException.class, () -> configuration.getSeleniumLogTypes().put("browser", Level.ALL));
+		assertThrows(UnsupportedOperationException.class, () -> configuration.getSelenideLogTypes().clear());
+		assertThrows(UnsupportedOperationException.class, () -> configuration.getCompressionThresholds().put(ArtifactType.PAGE_SOURCE, 0L));
+	}
+}
@@ -0,0 +1,48 @@
+package com.epam.reportportal.selenide;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class PageSourceDiffTest {
+
+	private static final String FILE = "page.html";
+
+	@Test
+	public void test_diff_equal_sources() {
+		assertThat(PageSourceDiff.diff(FILE, "a\nb\n", "a\nb\n"), contains("--- page.html", "+++ page.html"));
+	}
+
+	@Test
+	public void test_diff_keeps_context_around_changes() {
+		String previous = String.join("\n", Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14"));
+		String current = String.join("\n", Arrays.asList("1", "2", "x", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "14"));
+
+		List<String> diff = PageSourceDiff.diff(FILE, previous, current);
+
+		assertThat(
+				diff,
+				contains(
+						"--- page.html",
+						"+++ page.html",
+						"@@ -1,5 +1,6 @@",
+						" 1",
+						" 2",
+						"+x",
+						" 3",
+						" 4",
+						" 5",
+						"@@ -10,5 +11,4 @@",
+						" 10",
+						" 11",
+						" 12",
+						"-13",
+						" 14"
+				)
+		);
+	}
+}
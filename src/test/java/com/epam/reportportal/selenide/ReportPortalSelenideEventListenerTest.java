@@ -11,6 +11,8 @@ import com.epam.reportportal.service.LoggingContext;
 import com.epam.reportportal.service.step.StepReporter;
 import com.epam.reportportal.utils.files.Utils;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -18,16 +20,25 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.LogEntry;
 import org.openqa.selenium.logging.LogType;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static java.util.Optional.ofNullable;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -288,4 +299,658 @@ public class ReportPortalSelenideEventListenerTest {
 			assertThat(pageSourceLog.getMessage(), equalTo("Unable to get WebDriver page source: " + exceptionMessage));
 		}
 	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_async_attachments() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		byte[] image = getResource(IMAGE);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		Maybe<String> step = Maybe.just("step");
+		when(stepReporter.sendStep(eq(ItemStatus.INFO), eq(SELENIDE_LOG_STRING))).thenReturn(step);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableAsyncAttachments(2, 10);
+		runEvent(listener::beforeEvent, logEvent);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		// Attachment threads do not see the mocked current launch, so the attachments reach it only if it was captured on the test thread
+		ArgumentCaptor<Function<String, SaveLogRQ>> logCapture = ArgumentCaptor.forClass(Function.class);
+		doNothing().when(launch).log(same(step), logCapture.capture());
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+			runEvent(listener::afterEvent, logEvent);
+		}
+		verify(stepReporter).finishPreviousStep(eq(ItemStatus.FAILED));
+		assertThat(listener.awaitAttachments(10, TimeUnit.SECONDS), equalTo(Boolean.TRUE));
+
+		List<SaveLogRQ> logs = logCapture.getAllValues().stream().map(f -> f.apply("step")).collect(Collectors.toList());
+		assertThat(logs, hasSize(2));
+		logs.forEach(l -> {
+			assertThat(l.getItemUuid(), equalTo("step"));
+			assertThat(l.getLevel(), equalTo(LogLevel.INFO.name()));
+		});
+		assertThat(
+				logs.stream().map(l -> l.getFile().getContentType()).collect(Collectors.toList()),
+				containsInAnyOrder("image/png", "text/html")
+		);
+	}
+
+	@Test
+	public void test_step_logging_failed_async_attachments_no_step() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		byte[] image = getResource(IMAGE);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableAsyncAttachments(2, 10);
+		runEvent(listener::beforeEvent, logEvent);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		// The step reporter didn't start a step, so the attachments are sent from the test thread instead of being dropped
+		List<Function<String, SaveLogRQ>> logs;
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+			logs = runEventCapture(listener::afterEvent, logEvent);
+		}
+		verify(stepReporter).finishPreviousStep(eq(ItemStatus.FAILED));
+		assertThat(logs, hasSize(2));
+		assertThat(
+				logs.stream().map(l -> l.apply("test").getFile().getContentType()).collect(Collectors.toList()),
+				contains("image/png", "text/html")
+		);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_parallel_capture_timeout() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		byte[] image = getResource(IMAGE);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(webDriver.getPageSource()).thenAnswer(a -> {
+			Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+			return "";
+		});
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableParallelCapture(
+				200,
+				TimeUnit.MILLISECONDS
+		);
+		runEvent(listener::beforeEvent, logEvent);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, logEvent).stream()
+					.map(f -> f.apply("test"))
+					.collect(Collectors.toList());
+			verify(stepReporter).finishPreviousStep(eq(ItemStatus.FAILED));
+			assertThat(logs, hasSize(2));
+
+			SaveLogRQ screenshotLog = logs.stream().filter(l -> l.getFile() != null).findAny().orElseThrow();
+			assertThat(screenshotLog.getFile().getContent(), equalTo(image));
+
+			SaveLogRQ pageSourceLog = logs.stream().filter(l -> l.getFile() == null).findAny().orElseThrow();
+			assertThat(pageSourceLog.getLevel(), equalTo(LogLevel.ERROR.name()));
+			assertThat(pageSourceLog.getFile(), nullValue());
+			assertThat(pageSourceLog.getMessage(), equalTo("Unable to get WebDriver page source: timed out after 200 ms"));
+
+			// Hung requests are interrupted, and the next failure starts new threads
+			listener.shutdownCapture();
+			assertThat(runEventCapture(listener::afterEvent, logEvent), hasSize(2));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_compressed_bundle() throws IOException {
+		String logType = LogType.BROWSER;
+		Level logLevel = Level.FINER;
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.enableSeleniumLogs(logType, logLevel)
+				.bundleArtifacts(true);
+		runEvent(listener::beforeEvent, logEvent);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			try (MockedStatic<Selenide> selenideMockedStatic = Mockito.mockStatic(Selenide.class)) {
+				selenideMockedStatic.when(() -> Selenide.getWebDriverLogs(same(logType), same(logLevel)))
+						.thenReturn(Arrays.asList(BROWSER_LOG, BROWSER_LOG));
+				List<Function<String, SaveLogRQ>> logs = runEventCapture(listener::afterEvent, logEvent);
+				assertThat(logs, hasSize(1));
+
+				SaveLogRQ.File file = logs.get(0).apply("test").getFile();
+				assertThat(file.getContentType(), equalTo("application/zip"));
+				Map<String, byte[]> entries = new HashMap<>();
+				try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(file.getContent()))) {
+					for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+						entries.put(entry.getName(), Utils.readInputStreamToBytes(zip));
+					}
+				}
+				assertThat(entries.keySet(), containsInAnyOrder("page-source.html", "browser.log"));
+				assertThat(entries.get("page-source.html"), equalTo(page.getBytes(StandardCharsets.UTF_8)));
+				assertThat(
+						entries.get("browser.log"),
+						equalTo((BROWSER_LOG + "\n\n" + BROWSER_LOG).getBytes(StandardCharsets.UTF_8))
+				);
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_compressed_page_source() throws IOException {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.enableCompression(ArtifactType.PAGE_SOURCE, 1024);
+		runEvent(listener::beforeEvent, logEvent);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			List<Function<String, SaveLogRQ>> logs = runEventCapture(listener::afterEvent, logEvent);
+			assertThat(logs, hasSize(1));
+
+			SaveLogRQ.File file = logs.get(0).apply("test").getFile();
+			assertThat(file.getContentType(), equalTo("application/gzip"));
+			assertThat(file.getContent().length, lessThan(page.getBytes(StandardCharsets.UTF_8).length));
+			try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(file.getContent()))) {
+				assertThat(Utils.readInputStreamToBytes(gzip), equalTo(page.getBytes(StandardCharsets.UTF_8)));
+			}
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_duplicate_artifacts() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		byte[] image = getResource(IMAGE);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableDeduplication(
+				DeduplicationScope.TEST,
+				10
+		);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			List<Function<String, SaveLogRQ>> firstLogs = runEventCapture(listener::afterEvent, logEvent);
+			assertThat(firstLogs, hasSize(2));
+			firstLogs.forEach(l -> assertThat(l.apply("test").getFile(), notNullValue()));
+
+			List<Function<String, SaveLogRQ>> secondLogs = runEventCapture(listener::afterEvent, logEvent);
+			assertThat(secondLogs, hasSize(2));
+			List<SaveLogRQ> duplicates = secondLogs.stream().map(l -> l.apply("test")).collect(Collectors.toList());
+			duplicates.forEach(l -> assertThat(l.getFile(), nullValue()));
+			String original = " is the same as attached to step '" + SELENIDE_LOG_STRING + "'";
+			assertThat(duplicates.get(0).getMessage(), equalTo("Screenshot" + original));
+			assertThat(duplicates.get(1).getMessage(), equalTo("Page source" + original));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_duplicate_of_rejected_artifact() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(getResource(IMAGE));
+		when(webDriver.getPageSource()).thenReturn(new String(getResource(PAGE), StandardCharsets.UTF_8));
+
+		// Reject the first page source only
+		int[] pageSources = new int[1];
+		AttachmentPolicy policy = new AttachmentPolicy() {
+			@Override
+			public boolean captureFailure(@Nonnull LogEvent event, @Nonnull String stepName) {
+				return true;
+			}
+
+			@Override
+			public boolean attachArtifact(@Nonnull ArtifactType type, long size) {
+				return type != ArtifactType.PAGE_SOURCE || pageSources[0]++ > 0;
+			}
+		};
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableDeduplication(DeduplicationScope.TEST, 10)
+				.attachmentPolicy(policy);
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			assertThat(runEventCapture(listener::afterEvent, logEvent), hasSize(1));
+
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, logEvent).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(2));
+			assertThat(logs.get(0).getFile(), nullValue());
+			assertThat(logs.get(1).getFile(), notNullValue());
+			assertThat(logs.get(1).getFile().getContentType(), equalTo("text/html"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked" })
+	public void test_step_logging_failed_attachment_policy() {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(SELENIDE_LOG_STRING);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(getResource(IMAGE));
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logPageSources(false)
+				.attachmentPolicy(AttachmentPolicies.firstFailuresPerTest(1));
+		when(logEvent.getStatus()).thenReturn(LogEvent.EventStatus.FAIL);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			assertThat(runEventCapture(listener::afterEvent, logEvent), hasSize(1));
+			runEvent(listener::afterEvent, logEvent);
+			verify(context).emit(any(Function.class));
+			verify(webDriver).getScreenshotAs(any(OutputType.class));
+			verify(stepReporter, times(2)).finishPreviousStep(eq(ItemStatus.FAILED));
+		}
+	}
+
+	private static LogEvent stepEvent(String name, LogEvent.EventStatus status) {
+		LogEvent logEvent = mock(SelenideLog.class);
+		when(logEvent.toString()).thenReturn(name);
+		when(logEvent.getStatus()).thenReturn(status);
+		return logEvent;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_step_logging_batching() {
+		List<LogEvent> passed = Arrays.asList(
+				stepEvent("step 1", LogEvent.EventStatus.PASS),
+				stepEvent("step 2", LogEvent.EventStatus.PASS),
+				stepEvent("step 3", LogEvent.EventStatus.PASS),
+				stepEvent("step 4", LogEvent.EventStatus.PASS)
+		);
+		LogEvent failed = stepEvent("step 5", LogEvent.EventStatus.FAIL);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableStepBatching(3);
+		for (LogEvent logEvent : passed) {
+			runEvent(listener::beforeEvent, logEvent);
+			runEvent(listener::afterEvent, logEvent);
+		}
+
+		verify(stepReporter).sendStep(eq(ItemStatus.INFO), eq("step 1"));
+		verify(stepReporter).sendStep(eq(ItemStatus.INFO), eq("step 4"));
+		verify(stepReporter, times(1)).finishPreviousStep();
+		ArgumentCaptor<Function<String, SaveLogRQ>> logCapture = ArgumentCaptor.forClass(Function.class);
+		verify(context, times(2)).emit(logCapture.capture());
+		List<String> logs = logCapture.getAllValues().stream().map(l -> l.apply("test").getMessage()).collect(Collectors.toList());
+		assertThat(logs, contains("step 2", "step 3"));
+
+		runEvent(listener::beforeEvent, failed);
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(false);
+			runEvent(listener::afterEvent, failed);
+		}
+
+		verify(stepReporter, times(2)).finishPreviousStep();
+		verify(stepReporter).sendStep(eq(ItemStatus.INFO), eq("step 5"));
+		verify(stepReporter).finishPreviousStep(eq(ItemStatus.FAILED));
+	}
+
+	@Test
+	public void test_step_logging_failed_metrics() {
+		LogEvent logEvent = stepEvent(SELENIDE_LOG_STRING, LogEvent.EventStatus.FAIL);
+		byte[] image = getResource(IMAGE);
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(webDriver.getPageSource()).thenReturn(page);
+
+		SimpleListenerMetrics metrics = new SimpleListenerMetrics();
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().metrics(metrics);
+		runEvent(listener::beforeEvent, logEvent);
+		runEvent(listener::beforeEvent, mock(LogEvent.class));
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+			runEvent(listener::afterEvent, logEvent);
+		}
+
+		assertThat(metrics.getCount(ListenerMetrics.Phase.STEP_START, null), equalTo(1L));
+		assertThat(metrics.getCount(ListenerMetrics.Phase.SCREENSHOT_CAPTURE, null), equalTo(1L));
+		assertThat(metrics.getCount(ListenerMetrics.Phase.PAGE_SOURCE_CAPTURE, null), equalTo(1L));
+		assertThat(metrics.getCount(ListenerMetrics.Phase.ENCODING, ArtifactType.SCREENSHOT.name()), equalTo(1L));
+		assertThat(metrics.getCount(ListenerMetrics.Phase.LOG_EMIT, ArtifactType.PAGE_SOURCE.name()), equalTo(1L));
+		assertThat(metrics.getAttachedBytes(ArtifactType.SCREENSHOT), equalTo((long) image.length));
+		assertThat(metrics.getAttachedBytes(ArtifactType.PAGE_SOURCE), equalTo((long) page.getBytes(StandardCharsets.UTF_8).length));
+		assertThat(metrics.getSkippedEvents(), equalTo(1L));
+		assertThat(metrics.summary(), containsString("SCREENSHOT_CAPTURE: count=1"));
+	}
+
+	@Test
+	public void test_step_logging_batching_test_change() {
+		LogEvent first = stepEvent("step 1", LogEvent.EventStatus.PASS);
+		LogEvent second = stepEvent("step 2", LogEvent.EventStatus.PASS);
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().enableStepBatching(10);
+
+		when(stepReporter.getParent()).thenReturn(Maybe.just("test 1"));
+		runEvent(listener::beforeEvent, first);
+		runEvent(listener::afterEvent, first);
+
+		when(stepReporter.getParent()).thenReturn(Maybe.just("test 2"));
+		runEvent(listener::beforeEvent, second);
+		runEvent(listener::afterEvent, second);
+
+		verify(stepReporter).sendStep(eq(ItemStatus.INFO), eq("step 1"));
+		verify(stepReporter).sendStep(eq(ItemStatus.INFO), eq("step 2"));
+		verify(stepReporter, never()).finishPreviousStep();
+	}
+
+	@Test
+	public void test_step_logging_failed_collected_logs() {
+		String logType = LogType.BROWSER;
+		LogEvent passed = stepEvent("step 1", LogEvent.EventStatus.PASS);
+		LogEvent failed = stepEvent("step 2", LogEvent.EventStatus.FAIL);
+		long now = System.currentTimeMillis();
+		LogEntry first = new LogEntry(Level.INFO, now, "first entry");
+		LogEntry second = new LogEntry(Level.FINE, now, "second entry");
+		LogEntry third = new LogEntry(Level.SEVERE, now, "third entry");
+		LogEntry fourth = new LogEntry(Level.WARNING, now, "fourth entry");
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class, RETURNS_DEEP_STUBS);
+		when(webDriver.manage().logs().get(logType)).thenReturn(new LogEntries(Arrays.asList(first, second, third)))
+				.thenReturn(new LogEntries(Collections.singletonList(fourth)));
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.logPageSources(false)
+				.enableSeleniumLogs(logType, Level.INFO)
+				.enableLogCollection(2, 1, TimeUnit.MINUTES);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			runEvent(listener::beforeEvent, passed);
+			runEvent(listener::afterEvent, passed);
+			runEvent(listener::beforeEvent, failed);
+			List<Function<String, SaveLogRQ>> logRequests = runEventCapture(listener::afterEvent, failed);
+			assertThat(logRequests, hasSize(1));
+
+			String expected = third + "\n\n" + fourth;
+			assertThat(logRequests.get(0).apply("test").getFile().getContent(), equalTo(expected.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_page_source_diff() {
+		String page = new String(getResource(PAGE), StandardCharsets.UTF_8);
+		String changed = page.replaceFirst("\n", "\n<meta name=\"changed\">\n");
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getPageSource()).thenReturn(page, changed, changed);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false).enablePageSourceDiff(2);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			List<SaveLogRQ> logs = new ArrayList<>();
+			for (int i = 1; i <= 3; i++) {
+				LogEvent failed = stepEvent("step " + i, LogEvent.EventStatus.FAIL);
+				runEvent(listener::beforeEvent, failed);
+				runEventCapture(listener::afterEvent, failed).forEach(l -> logs.add(l.apply("test")));
+			}
+			assertThat(logs, hasSize(3));
+
+			assertThat(logs.get(0).getFile().getContent(), equalTo(page.getBytes(StandardCharsets.UTF_8)));
+			assertThat(logs.get(1).getFile().getContentType(), equalTo("text/x-diff"));
+			String diff = new String(logs.get(1).getFile().getContent(), StandardCharsets.UTF_8);
+			assertThat(diff, org.hamcrest.Matchers.startsWith("--- page-source.html\n+++ page-source.html\n@@ "));
+			assertThat(diff, containsString("\n+<meta name=\"changed\">"));
+			assertThat(logs.get(2).getFile().getContent(), equalTo(changed.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_multiple_drivers() {
+		LogEvent failed = stepEvent("step", LogEvent.EventStatus.FAIL);
+		byte[] image = getResource(IMAGE);
+		byte[] adminImage = Arrays.copyOf(image, image.length / 2);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		RemoteWebDriver adminDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+		when(adminDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(adminImage);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logPageSources(false)
+				.trackDriver("admin browser", adminDriver);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			runEvent(listener::beforeEvent, failed);
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, failed).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(2));
+
+			assertThat(logs.get(0).getMessage(), equalTo("default browser: Screenshot"));
+			assertThat(logs.get(0).getFile().getContent(), equalTo(image));
+			assertThat(logs.get(1).getMessage(), equalTo("admin browser: Screenshot"));
+			assertThat(logs.get(1).getFile().getContent(), equalTo(adminImage));
+		}
+
+		listener.untrackDriver(adminDriver);
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			runEvent(listener::beforeEvent, failed);
+			List<Function<String, SaveLogRQ>> logs = runEventCapture(listener::afterEvent, failed);
+			assertThat(logs, hasSize(1));
+			assertThat(logs.get(0).apply("test").getMessage(), equalTo("Screenshot"));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_capture_circuit_breaker() {
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenAnswer(invocation -> {
+			Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			return null;
+		});
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logPageSources(false)
+				.enableCaptureTimeout(100, TimeUnit.MILLISECONDS)
+				.enableCaptureCircuitBreaker(1);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			List<SaveLogRQ> logs = new ArrayList<>();
+			for (int i = 1; i <= 2; i++) {
+				LogEvent failed = stepEvent("step " + i, LogEvent.EventStatus.FAIL);
+				runEvent(listener::beforeEvent, failed);
+				runEventCapture(listener::afterEvent, failed).forEach(l -> logs.add(l.apply("test")));
+			}
+			assertThat(logs, hasSize(2));
+
+			assertThat(logs.get(0).getLevel(), equalTo(LogLevel.ERROR.name()));
+			assertThat(logs.get(0).getMessage(), equalTo("Unable to get WebDriver screenshot: timed out after 100 ms"));
+			assertThat(logs.get(1).getLevel(), equalTo(LogLevel.ERROR.name()));
+			assertThat(
+					logs.get(1).getMessage(),
+					equalTo("Unable to get WebDriver artifacts: the session is not responding, stopped after 1 timeouts in a row")
+			);
+			verify(webDriver, times(1)).getScreenshotAs(any());
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_flight_recorder() {
+		byte[] first = new byte[] { 1 };
+		byte[] second = new byte[] { 2 };
+		byte[] third = new byte[] { 3 };
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(first, second, third);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.logPageSources(false)
+				.enableFlightRecorder(2, 1, 1024, ScreenshotEncoder.NONE);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			for (int i = 1; i <= 2; i++) {
+				LogEvent passed = stepEvent("step " + i, LogEvent.EventStatus.PASS);
+				runEvent(listener::beforeEvent, passed);
+				runEvent(listener::afterEvent, passed);
+			}
+			verify(context, never()).emit(any());
+
+			LogEvent failed = stepEvent("step 3", LogEvent.EventStatus.FAIL);
+			runEvent(listener::beforeEvent, failed);
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, failed).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(2));
+
+			assertThat(logs.get(0).getMessage(), equalTo("Screenshot before 'step 2'"));
+			assertThat(logs.get(0).getFile().getContent(), equalTo(second));
+			assertThat(logs.get(1).getMessage(), equalTo("Screenshot before 'step 3'"));
+			assertThat(logs.get(1).getFile().getContent(), equalTo(third));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_flight_recorder_downscaled_frames() throws IOException {
+		byte[] image = getResource(IMAGE);
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(image);
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.logPageSources(false)
+				.enableFlightRecorder(1, 1, 1024 * 1024);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			LogEvent failed = stepEvent("step", LogEvent.EventStatus.FAIL);
+			runEvent(listener::beforeEvent, failed);
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, failed).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(1));
+
+			SaveLogRQ.File file = logs.get(0).getFile();
+			assertThat(file.getContentType(), equalTo("image/jpeg"));
+			BufferedImage frame = ImageIO.read(new ByteArrayInputStream(file.getContent()));
+			assertThat(frame.getWidth(), lessThanOrEqualTo(960));
+			assertThat(frame.getHeight(), lessThanOrEqualTo(540));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_flight_recorder_attachment_policy() {
+		byte[] first = new byte[] { 1 };
+		byte[] second = new byte[] { 2 };
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenReturn(first, second);
+
+		// Reject the first failure only
+		int[] failures = new int[1];
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logScreenshots(false)
+				.logPageSources(false)
+				.enableFlightRecorder(2, 1, 1024, ScreenshotEncoder.NONE)
+				.attachmentPolicy((event, stepName) -> failures[0]++ > 0);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			LogEvent rejected = stepEvent("step 1", LogEvent.EventStatus.FAIL);
+			runEvent(listener::beforeEvent, rejected);
+			runEvent(listener::afterEvent, rejected);
+			verify(context, never()).emit(any());
+
+			LogEvent failed = stepEvent("step 2", LogEvent.EventStatus.FAIL);
+			runEvent(listener::beforeEvent, failed);
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, failed).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(2));
+			assertThat(logs.get(0).getFile().getContent(), equalTo(first));
+			assertThat(logs.get(1).getFile().getContent(), equalTo(second));
+		}
+	}
+
+	@Test
+	public void test_step_logging_failed_flight_recorder_capture_timeout() {
+		RemoteWebDriver webDriver = mock(RemoteWebDriver.class);
+		when(webDriver.getScreenshotAs(eq(OutputType.BYTES))).thenAnswer(invocation -> {
+			Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			return null;
+		});
+
+		ReportPortalSelenideEventListener listener = new ReportPortalSelenideEventListener().logPageSources(false)
+				.enableFlightRecorder(2, 1, 1024)
+				.enableCaptureTimeout(100, TimeUnit.MILLISECONDS)
+				.enableCaptureCircuitBreaker(1);
+
+		try (MockedStatic<WebDriverRunner> driverMockedStatic = Mockito.mockStatic(WebDriverRunner.class)) {
+			driverMockedStatic.when(WebDriverRunner::hasWebDriverStarted).thenReturn(true);
+			driverMockedStatic.when(WebDriverRunner::getWebDriver).thenReturn(webDriver);
+
+			// The frame times out and opens the breaker, so the failure doesn't wait for the screenshot again
+			LogEvent failed = stepEvent("step", LogEvent.EventStatus.FAIL);
+			runEvent(listener::beforeEvent, failed);
+			List<SaveLogRQ> logs = runEventCapture(listener::afterEvent, failed).stream()
+					.map(l -> l.apply("test"))
+					.collect(Collectors.toList());
+			assertThat(logs, hasSize(1));
+			assertThat(
+					logs.get(0).getMessage(),
+					equalTo("Unable to get WebDriver artifacts: the session is not responding, stopped after 1 timeouts in a row")
+			);
+			verify(webDriver, times(1)).getScreenshotAs(any());
+		}
+	}
 }
@@ -0,0 +1,58 @@
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.message.TypeAwareByteSource;
+import com.epam.reportportal.utils.files.Utils;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ScreenshotEncoderTest {
+
+	private static final String IMAGE = "pug/lucky.jpg";
+
+	private static byte[] getImage() throws IOException {
+		try (InputStream is = ScreenshotEncoderTest.class.getClassLoader().getResourceAsStream(IMAGE)) {
+			return Utils.readInputStreamToBytes(is);
+		}
+	}
+
+	private static BufferedImage decode(TypeAwareByteSource source) throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(source.read()));
+	}
+
+	@Test
+	public void test_none_encoder_keeps_screenshot() throws IOException {
+		byte[] image = getImage();
+		TypeAwareByteSource result = ScreenshotEncoder.NONE.encode(image);
+
+		assertThat(result.getMediaType(), equalTo("image/png"));
+		assertThat(result.read(), equalTo(image));
+	}
+
+	@Test
+	public void test_jpeg_encoder_downscales_screenshot() throws IOException {
+		TypeAwareByteSource result = ScreenshotEncoder.jpeg(0.5f).maxSize(100, 80).encode(getImage());
+
+		assertThat(result.getMediaType(), equalTo("image/jpeg"));
+		BufferedImage image = decode(result);
+		assertThat(image.getWidth(), lessThanOrEqualTo(100));
+		assertThat(image.getHeight(), lessThanOrEqualTo(80));
+	}
+
+	@Test
+	public void test_encoder_fits_byte_budget() throws IOException {
+		int budget = 8 * 1024;
+		TypeAwareByteSource result = ScreenshotEncoder.indexedPng().maxBytes(budget).encode(getImage());
+
+		assertThat(result.getMediaType(), equalTo("image/png"));
+		assertThat(result.read().length, lessThanOrEqualTo(budget));
+		assertThat(decode(result), notNullValue());
+	}
+}
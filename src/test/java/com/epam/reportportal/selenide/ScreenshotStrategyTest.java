@@ -0,0 +1,90 @@
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.SelenideLog;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ScreenshotStrategyTest {
+
+	private static final byte[] PAGE = new byte[] { 1, 2, 3 };
+	private static final byte[] ELEMENT = new byte[] { 4, 5 };
+
+	private static byte[] image(int width, int height) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+		return output.toByteArray();
+	}
+
+	@Test
+	public void test_locator_parses_selenide_descriptions() {
+		assertThat(ScreenshotStrategy.locator("#login"), equalTo(Map.entry(By.cssSelector("#login"), 0)));
+		assertThat(ScreenshotStrategy.locator("input[name=q]"), equalTo(Map.entry(By.cssSelector("input[name=q]"), 0)));
+		assertThat(ScreenshotStrategy.locator(".item[2]"), equalTo(Map.entry(By.cssSelector(".item"), 2)));
+		assertThat(ScreenshotStrategy.locator("By.xpath: //div/a"), equalTo(Map.entry(By.xpath("//div/a"), 0)));
+		assertThat(ScreenshotStrategy.locator("By.id: login"), equalTo(Map.entry(By.id("login"), 0)));
+		assertThat(ScreenshotStrategy.locator("a[href='/login']"), equalTo(Map.entry(By.cssSelector("a[href='/login']"), 0)));
+		assertThat(ScreenshotStrategy.locator("#form/button"), nullValue());
+		assertThat(ScreenshotStrategy.locator("#form / a[href='/login']"), nullValue());
+		assertThat(ScreenshotStrategy.locator("<div class=\"item\">"), nullValue());
+		assertThat(ScreenshotStrategy.locator(""), nullValue());
+	}
+
+	@Test
+	public void test_element_strategy_captures_element() throws IOException {
+		RemoteWebDriver driver = mock(RemoteWebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(driver.findElements(By.cssSelector("#login"))).thenReturn(Collections.singletonList(element));
+		when(element.getScreenshotAs(OutputType.BYTES)).thenReturn(ELEMENT);
+
+		byte[] result = ScreenshotStrategy.element().capture(driver, new SelenideLog("#login", "click()"));
+
+		assertThat(result, equalTo(ELEMENT));
+		verify(driver, never()).getScreenshotAs(any());
+	}
+
+	@Test
+	public void test_element_strategy_page_fallback() throws IOException {
+		RemoteWebDriver driver = mock(RemoteWebDriver.class);
+		when(driver.findElements(any(By.class))).thenReturn(Collections.emptyList());
+		when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(PAGE);
+		SelenideLog event = new SelenideLog("#login", "click()");
+
+		assertThat(ScreenshotStrategy.element().capture(driver, event), nullValue());
+		assertThat(ScreenshotStrategy.element().orPage().capture(driver, event), equalTo(PAGE));
+		assertThat(ScreenshotStrategy.element().orPage().capture(driver, new SelenideLog("open", "https://example.com")), equalTo(PAGE));
+	}
+
+	@Test
+	public void test_element_strategy_crops_margin() throws IOException {
+		RemoteWebDriver driver = mock(RemoteWebDriver.class);
+		WebElement element = mock(WebElement.class);
+		when(driver.findElements(By.cssSelector("#login"))).thenReturn(Collections.singletonList(element));
+		when(driver.executeScript(anyString(), any())).thenReturn(Arrays.asList(100L, 50L, 40.5d, 20L, 2L));
+		when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(image(800, 600));
+
+		byte[] result = ScreenshotStrategy.element().withMargin(10).capture(driver, new SelenideLog("#login", "click()"));
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(result));
+		assertThat(image.getWidth(), equalTo(121));
+		assertThat(image.getHeight(), equalTo(80));
+		verify(element, never()).getScreenshotAs(any());
+	}
+}
@@ -0,0 +1,50 @@
+package com.epam.reportportal.selenide;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.step.StepReporter;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class StepContextTest {
+
+	@Test
+	public void test_context_is_reused_until_launch_or_test_changes() {
+		ThreadLocal<StepContext> holder = new ThreadLocal<>();
+		StepReporter reporter = mock(StepReporter.class);
+		when(reporter.getParent()).thenReturn(Maybe.just("test 1"));
+		Launch launch = mock(Launch.class);
+		when(launch.getStepReporter()).thenReturn(reporter);
+		StepReporter nextReporter = mock(StepReporter.class);
+		when(nextReporter.getParent()).thenReturn(Maybe.just("test 3"));
+		Launch nextLaunch = mock(Launch.class);
+		when(nextLaunch.getStepReporter()).thenReturn(nextReporter);
+
+		try (MockedStatic<Launch> launchMockedStatic = Mockito.mockStatic(Launch.class)) {
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(launch);
+			StepContext context = StepContext.current(holder);
+			assertThat(context, notNullValue());
+			assertThat(StepContext.current(holder), sameInstance(context));
+			verify(launch, times(1)).getStepReporter();
+
+			when(reporter.getParent()).thenReturn(Maybe.just("test 2"));
+			StepContext nextTest = StepContext.current(holder);
+			assertThat(nextTest, not(sameInstance(context)));
+			assertThat(StepContext.current(holder), sameInstance(nextTest));
+
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(nextLaunch);
+			StepContext nextLaunchContext = StepContext.current(holder);
+			assertThat(nextLaunchContext, not(sameInstance(nextTest)));
+			assertThat(nextLaunchContext.getLaunch(), sameInstance(nextLaunch));
+
+			launchMockedStatic.when(Launch::currentLaunch).thenReturn(null);
+			assertThat(StepContext.current(holder), nullValue());
+			assertThat(holder.get(), nullValue());
+		}
+	}
+}
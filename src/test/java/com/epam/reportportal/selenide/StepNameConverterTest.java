@@ -0,0 +1,58 @@
+package com.epam.reportportal.selenide;
+
+import com.codeborne.selenide.logevents.SelenideLog;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StepNameConverterTest {
+
+	@Test
+	public void test_converter_masks_in_single_pass() {
+		StepNameConverter converter = StepNameConverter.create()
+				.mask("secret_token=[^&\"]*", "secret_token=<removed>")
+				.mask("(pass)word\\(\"[^\"]*\"\\)", "password(\"*****\")");
+
+		String result = converter.apply("open(\"/login?secret_token=abc&x=1\") password(\"qwerty\") secret_token=def");
+
+		assertThat(result, equalTo("open(\"/login?secret_token=<removed>&x=1\") password(\"*****\") secret_token=<removed>"));
+	}
+
+	@Test
+	public void test_converter_without_masks_keeps_name() {
+		String name = "$(\"#login\") click()";
+
+		assertThat(StepNameConverter.create().cache(10).apply(name), sameInstance(name));
+	}
+
+	@Test
+	public void test_converter_builds_selenide_step_name() {
+		SelenideLog event = new SelenideLog("#login", "set value(secret_token=abc)");
+		StepNameConverter converter = StepNameConverter.create().mask("secret_token=[^)]*", "secret_token=<removed>").cache(10);
+
+		assertThat(StepNameConverter.create().convert(event), equalTo(event.toString()));
+		assertThat(converter.convert(event), equalTo("$(\"#login\") set value(secret_token=<removed>)"));
+		assertThat(converter.convert(event), equalTo("$(\"#login\") set value(secret_token=<removed>)"));
+	}
+
+	@Test
+	public void test_converter_keeps_back_references() {
+		StepNameConverter converter = StepNameConverter.create()
+				.mask("token=(\\w+)", "token=<removed>")
+				.mask("value\\((['\"])[^'\"]*\\1\\)", "value(*****)");
+
+		String result = converter.apply("set value('qwerty') token=abc value(\"x') value(\"12\")");
+
+		assertThat(result, equalTo("set value(*****) token=<removed> value(\"x') value(*****)"));
+	}
+
+	@Test
+	public void test_converter_rejects_reference_to_missing_group() {
+		StepNameConverter converter = StepNameConverter.create();
+
+		assertThrows(IllegalArgumentException.class, () -> converter.mask("(a)\\2", "b"));
+	}
+}